@@ -0,0 +1,47 @@
+package top.shjibi.plugineer.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * <p>Runs the benchmarks, taking the usual JMH command line options.
+ * <br>Unless told otherwise with {@code -rf} and {@code -rff}, results are written as JSON to {@code plugineer-<version>.json}, where the version is the benchmarked version of Plugineer, so that the results of two releases can be compared.
+ * </p>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, IOException, RunnerException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.shouldHelp()) {
+            options.showHelp();
+            return;
+        }
+
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(options);
+        if (!options.getResultFormat().hasValue()) builder.resultFormat(ResultFormatType.JSON);
+        if (!options.getResult().hasValue()) {
+            builder.result("plugineer-" + getVersion() + ".json");
+        }
+        new Runner(builder.build()).run();
+    }
+
+    private static String getVersion() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = BenchmarkRunner.class.getResourceAsStream("/benchmark.properties")) {
+            if (in != null) properties.load(in);
+        }
+        return properties.getProperty("version", "unknown");
+    }
+}
@@ -0,0 +1,62 @@
+package top.shjibi.plugineer.benchmark;
+
+import org.bukkit.command.Command;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.shjibi.plugineer.command.base.CommandHandler;
+import top.shjibi.plugineer.command.base.PlayerCommandHandler;
+import top.shjibi.plugineer.command.base.annotations.CommandInfo;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link CommandHandler#isCommandApplicable} for a name it handles and for one it doesn't.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandApplicableBenchmark {
+
+    private CommandHandler handler;
+
+    @Setup
+    public void setUp() {
+        StubServer.install();
+        handler = new Handler(StubServer.getPlugin());
+    }
+
+    @Benchmark
+    public boolean hit() {
+        return handler.isCommandApplicable("Teleport");
+    }
+
+    @Benchmark
+    public boolean miss() {
+        return handler.isCommandApplicable("gamemode");
+    }
+
+    @CommandInfo(name = {"tpa", "tpaccept", "tpdeny", "tphere", "teleport"}, silent = false)
+    public static final class Handler extends PlayerCommandHandler {
+        public Handler(JavaPlugin plugin) {
+        }
+
+        @Override
+        public void execute(@NotNull Player p, @Nullable Command command, @NotNull String label, @NotNull String[] args) {
+        }
+    }
+}
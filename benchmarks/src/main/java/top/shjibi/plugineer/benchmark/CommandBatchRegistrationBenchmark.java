@@ -0,0 +1,68 @@
+package top.shjibi.plugineer.benchmark;
+
+import org.bukkit.command.Command;
+import org.bukkit.command.SimpleCommandMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.shjibi.plugineer.command.CommandManager;
+import top.shjibi.plugineer.command.base.CommandRegistration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Benchmarks registering a batch of commands to and unregistering them from a command map that already knows {@code knownCommands} commands.
+ * <br>Every operation unregisters what it registered, so the command map stays the same size.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandBatchRegistrationBenchmark {
+
+    private static final int BATCH_SIZE = 32;
+
+    @Param({"100", "1000", "10000"})
+    public int knownCommands;
+
+    private CommandManager manager;
+    private List<CommandRegistration> batch;
+    private List<String> batchNames;
+
+    @Setup
+    public void setUp() {
+        StubServer.install();
+        SimpleCommandMap commandMap = StubServer.getCommandMap();
+        for (int i = commandMap.getCommands().size(); i < knownCommands; i++) {
+            commandMap.register("other", new CommandRegistrationBenchmark.OtherCommand("other" + i));
+        }
+        manager = CommandManager.get(StubServer.getPlugin());
+
+        batch = new ArrayList<>(BATCH_SIZE);
+        batchNames = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new CommandRegistration("batch" + i, "A batched command", "/<command>", new String[]{"b" + i}, false));
+            batchNames.add("batch" + i);
+        }
+    }
+
+    @Benchmark
+    public List<Command> registerAndUnregisterBatch() {
+        List<Command> commands = manager.registerCommands(batch);
+        manager.unregisterCommands(batchNames);
+        return commands;
+    }
+}
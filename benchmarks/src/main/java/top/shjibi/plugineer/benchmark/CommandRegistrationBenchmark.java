@@ -0,0 +1,68 @@
+package top.shjibi.plugineer.benchmark;
+
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.SimpleCommandMap;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.shjibi.plugineer.command.CommandManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Benchmarks registering a command to and unregistering it from a command map that already knows {@code knownCommands} commands.
+ * <br>Batches are benchmarked by {@link CommandBatchRegistrationBenchmark}, which releases before 2.0.0 can't run.
+ * <br>Every operation unregisters what it registered, so the command map stays the same size.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandRegistrationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int knownCommands;
+
+    private CommandManager manager;
+
+    @Setup
+    public void setUp() {
+        StubServer.install();
+        SimpleCommandMap commandMap = StubServer.getCommandMap();
+        for (int i = commandMap.getCommands().size(); i < knownCommands; i++) {
+            commandMap.register("other", new OtherCommand("other" + i));
+        }
+        manager = CommandManager.get(StubServer.getPlugin());
+    }
+
+    @Benchmark
+    public Command registerAndUnregister() {
+        Command command = manager.registerCommand(false, "benchmark", "A benchmarked command", "/<command>", "bench");
+        manager.unregisterCommand("benchmark");
+        return command;
+    }
+
+    static final class OtherCommand extends Command {
+        OtherCommand(String name) {
+            super(name);
+        }
+
+        @Override
+        public boolean execute(@NotNull CommandSender sender, @NotNull String commandLabel, @NotNull String[] args) {
+            return true;
+        }
+    }
+}
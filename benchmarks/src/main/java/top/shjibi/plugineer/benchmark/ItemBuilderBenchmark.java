@@ -0,0 +1,46 @@
+package top.shjibi.plugineer.benchmark;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.shjibi.plugineer.util.ItemBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building an item with {@link ItemBuilder}, the item meta comes from the stubbed item factory.
+ * <br>Only uses what every release has, {@link ItemTemplateBenchmark} copies the same item from a template.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemBuilderBenchmark {
+
+    @Setup
+    public void setUp() {
+        StubServer.install();
+    }
+
+    private static ItemBuilder builder() {
+        return ItemBuilder.of(Material.DIAMOND_SWORD)
+                .withDisplayName("§6Excalibur")
+                .withLore("§7A sword forged in §cfire§7.", "§7Damage: §c+12");
+    }
+
+    @Benchmark
+    public ItemStack build() {
+        return builder().build();
+    }
+}
@@ -0,0 +1,56 @@
+package top.shjibi.plugineer.benchmark;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.shjibi.plugineer.util.ItemBuilder;
+import top.shjibi.plugineer.util.ItemTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks copying an item from an {@link ItemTemplate}, compare it with {@link ItemBuilderBenchmark}, which builds the same item every time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemTemplateBenchmark {
+
+    private ItemTemplate template;
+    private ItemTemplate pricedTemplate;
+
+    @Setup
+    public void setUp() {
+        StubServer.install();
+        template = ItemBuilder.of(Material.DIAMOND_SWORD)
+                .withDisplayName("§6Excalibur")
+                .withLore("§7A sword forged in §cfire§7.", "§7Damage: §c+12")
+                .freeze();
+        pricedTemplate = ItemBuilder.of(Material.DIAMOND_SWORD)
+                .withDisplayName("§6Excalibur")
+                .withLore("§7A sword forged in §cfire§7.", "§7Price: §e<price>")
+                .freeze("price");
+    }
+
+    @Benchmark
+    public ItemStack templateCopy() {
+        return template.create(16);
+    }
+
+    @Benchmark
+    public ItemStack templatePlaceholder() {
+        return pricedTemplate.create(1, 250);
+    }
+}
@@ -0,0 +1,107 @@
+package top.shjibi.plugineer.benchmark;
+
+import org.bukkit.command.Command;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.shjibi.plugineer.command.CommandManager;
+import top.shjibi.plugineer.command.base.PlayerCommandHandler;
+import top.shjibi.plugineer.command.base.annotations.CommandInfo;
+import top.shjibi.plugineer.command.base.listener.SilentCommandListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Benchmarks {@link SilentCommandListener#onPlayerCommandPreprocess} for a silent command and for a command that isn't silent, which is what most commands are.
+ * <br>The silent command belongs to the last of {@code handlers} silent handlers, so a listener that checks them one by one has to go through all of them.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SilentDispatchBenchmark {
+
+    @Param({"1", "16", "256"})
+    public int handlers;
+
+    private SilentCommandListener listener;
+    private Player player;
+
+    @Setup
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void setUp() throws IOException, IllegalAccessException {
+        StubServer.install();
+        // Every handler needs its own class, so the filler class is defined again for each of them
+        byte[] fillerBytes;
+        try (InputStream in = Filler.class.getResourceAsStream("SilentDispatchBenchmark$Filler.class")) {
+            fillerBytes = in.readAllBytes();
+        }
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Class[] classes = new Class[handlers];
+        for (int i = 0; i < handlers - 1; i++) {
+            classes[i] = lookup.defineHiddenClass(fillerBytes, true).lookupClass();
+        }
+        classes[handlers - 1] = Handler.class;
+
+        CommandManager manager = CommandManager.get(StubServer.getPlugin());
+        manager.addHandlers(classes);
+        listener = manager.getSilentCommandListener();
+        player = StubServer.newPlayer("Benchmark");
+    }
+
+    @Benchmark
+    public boolean silent() {
+        PlayerCommandPreprocessEvent event = new PlayerCommandPreprocessEvent(player, "/silent home \"my base\" 3");
+        listener.onPlayerCommandPreprocess(event);
+        return event.isCancelled();
+    }
+
+    @Benchmark
+    public boolean notSilent() {
+        PlayerCommandPreprocessEvent event = new PlayerCommandPreprocessEvent(player, "/spawn home \"my base\" 3");
+        listener.onPlayerCommandPreprocess(event);
+        return event.isCancelled();
+    }
+
+    @CommandInfo(name = "silent", silent = true)
+    public static final class Handler extends PlayerCommandHandler {
+        private int executions;
+
+        public Handler(JavaPlugin plugin) {
+        }
+
+        @Override
+        public void execute(@NotNull Player p, @Nullable Command command, @NotNull String label, @NotNull String[] args) {
+            executions += args.length;
+        }
+    }
+
+    @CommandInfo(name = {"filler", "fill"}, silent = true)
+    public static final class Filler extends PlayerCommandHandler {
+        public Filler(JavaPlugin plugin) {
+        }
+
+        @Override
+        public void execute(@NotNull Player p, @Nullable Command command, @NotNull String label, @NotNull String[] args) {
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package top.shjibi.plugineer.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.shjibi.plugineer.util.StringUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link StringUtil#color}, {@link StringUtil#strip} and {@link StringUtil#join}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringUtilBenchmark {
+
+    @Param({"plain", "colored", "lore"})
+    public String input;
+
+    private String message;
+    private String[] elements;
+
+    @Setup
+    public void setUp() {
+        message = switch (input) {
+            case "plain" -> "Welcome to the server, enjoy your stay";
+            case "colored" -> "&aWelcome to &6&lthe server&r&a, enjoy your stay";
+            case "lore" -> "&7A sword forged in &cfire&7.\n&7Damage: &c+12\n&7Speed: &a1.6\n\n&9&oLegendary";
+            default -> throw new IllegalArgumentException(input);
+        };
+        elements = message.split(" ");
+    }
+
+    @Benchmark
+    public String color() {
+        return StringUtil.color(message);
+    }
+
+    @Benchmark
+    public String strip() {
+        return StringUtil.strip(message);
+    }
+
+    @Benchmark
+    public String join() {
+        return StringUtil.join(" ", elements);
+    }
+}
@@ -0,0 +1,216 @@
+package top.shjibi.plugineer.benchmark;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.command.Command;
+import org.bukkit.command.SimpleCommandMap;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>A Bukkit server made of {@link Proxy proxies}, just enough to run Plugineer outside of a real server.
+ * <br>The server itself is an instance of a generated class, which keeps its command map in a {@code commandMap} field like CraftServer, so that older releases can find it.
+ * <br>Every method that isn't stubbed returns the default value of its return type, or an empty collection.
+ * <br>Like CraftServer, it rebuilds a command tree from every known command when commands are synced, so refreshing commands costs about what it does on a real server.
+ * </p>
+ */
+public final class StubServer {
+
+    private StubServer() {
+    }
+
+    private static Server server;
+    private static SimpleCommandMap commandMap;
+    private static JavaPlugin plugin;
+    // The tree built by the last sync, kept so that building it isn't optimized away
+    private static volatile List<Object> commandTree = Collections.emptyList();
+
+    /**
+     * Lets the command map be found by its getter and the commands be synced, like on a real server
+     */
+    public interface CommandMapHolder {
+        SimpleCommandMap getCommandMap();
+
+        void syncCommands();
+    }
+
+    /**
+     * Installs the stubbed server to {@link Bukkit}, once
+     *
+     * @return the stubbed server
+     */
+    @NotNull
+    public static synchronized Server install() {
+        if (server != null) return server;
+        Logger logger = Logger.getLogger("StubServer");
+        logger.setLevel(Level.WARNING);
+        ItemFactory itemFactory = stub(ItemFactory.class, (method, args) -> switch (method.getName()) {
+            case "getItemMeta" -> newItemMeta(new HashMap<>());
+            case "isApplicable" -> true;
+            case "asMetaFor" -> args[0];
+            default -> UNHANDLED;
+        });
+        PluginManager pluginManager = stub(PluginManager.class, (method, args) -> UNHANDLED);
+
+        InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+            case "getLogger" -> logger;
+            case "getName" -> "StubServer";
+            case "getVersion", "getBukkitVersion" -> "1.14.4-R0.1-SNAPSHOT";
+            case "getCommandMap" -> commandMap;
+            case "syncCommands" -> {
+                syncCommands();
+                yield null;
+            }
+            case "getItemFactory" -> itemFactory;
+            case "getPluginManager" -> pluginManager;
+            case "isPrimaryThread" -> true;
+            default -> defaultValue(proxy, method, args);
+        };
+        try {
+            server = StubServerClass.newServer(handler);
+            commandMap = new SimpleCommandMap(server);
+            StubServerClass.setCommandMap(server, commandMap);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create the stubbed server", e);
+        }
+        Bukkit.setServer(server);
+
+        PluginDescriptionFile description = new PluginDescriptionFile("Benchmark", "1.0", BenchmarkPlugin.class.getName());
+        File dataFolder = new File(System.getProperty("java.io.tmpdir"), "plugineer-benchmark");
+        plugin = new BenchmarkPlugin(new JavaPluginLoader(server), description, dataFolder, new File(dataFolder, "benchmark.jar"));
+        return server;
+    }
+
+    // Every known command becomes a literal node with a greedy argument node under it, like in the Brigadier tree of CraftServer
+    private static void syncCommands() {
+        Collection<Command> commands = commandMap.getCommands();
+        List<Object> tree = new ArrayList<>(commands.size());
+        for (Command command : commands) {
+            tree.add(new Object[]{command.getLabel().toLowerCase(Locale.ROOT), new Object[]{"args", command}});
+        }
+        commandTree = tree;
+    }
+
+    /**
+     * Gets the command map of the stubbed server
+     */
+    @NotNull
+    public static SimpleCommandMap getCommandMap() {
+        install();
+        return commandMap;
+    }
+
+    /**
+     * Gets the plugin that the benchmarks run as
+     */
+    @NotNull
+    public static JavaPlugin getPlugin() {
+        install();
+        return plugin;
+    }
+
+    /**
+     * Creates a stubbed player that ignores every message
+     *
+     * @param name name of the player
+     */
+    @NotNull
+    public static Player newPlayer(@NotNull String name) {
+        UUID uuid = UUID.nameUUIDFromBytes(name.getBytes());
+        return stub(Player.class, (method, args) -> switch (method.getName()) {
+            case "getName", "getDisplayName" -> name;
+            case "getUniqueId" -> uuid;
+            case "getServer" -> install();
+            case "hasPermission", "isOnline" -> true;
+            default -> UNHANDLED;
+        });
+    }
+
+    private static final Object UNHANDLED = new Object();
+
+    private interface Stub {
+        Object invoke(Method method, Object[] args);
+    }
+
+    private static <T> T stub(Class<T> type, Stub stub) {
+        return type.cast(Proxy.newProxyInstance(StubServer.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result = stub.invoke(method, args);
+            return result == UNHANDLED ? defaultValue(proxy, method, args) : result;
+        }));
+    }
+
+    // An item meta that keeps whatever is set to it as properties
+    private static ItemMeta newItemMeta(Map<String, Object> properties) {
+        return stub(ItemMeta.class, (method, args) -> {
+            String name = method.getName();
+            int count = args == null ? 0 : args.length;
+            if (name.equals("clone")) return newItemMeta(new HashMap<>(properties));
+            if (name.startsWith("set") && count == 1) {
+                properties.put(name.substring(3), args[0]);
+                return null;
+            }
+            if (name.startsWith("get") && count == 0 && properties.containsKey(name.substring(3))) return properties.get(name.substring(3));
+            if (name.startsWith("has") && count == 0 && properties.containsKey(name.substring(3))) return true;
+            return UNHANDLED;
+        });
+    }
+
+    private static Object defaultValue(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                if (method.getParameterCount() == 1) return proxy == args[0];
+                break;
+            case "hashCode":
+                if (method.getParameterCount() == 0) return System.identityHashCode(proxy);
+                break;
+            case "toString":
+                if (method.getParameterCount() == 0) return "Stub" + proxy.getClass().getInterfaces()[0].getSimpleName();
+                break;
+        }
+
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0.0;
+        if (type == float.class) return 0.0F;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        if (type == char.class) return '\0';
+        if (type == Set.class) return Collections.emptySet();
+        if (type == Map.class) return Collections.emptyMap();
+        if (type == List.class || type == Collection.class) return Collections.emptyList();
+        return null;
+    }
+
+    /**
+     * The plugin that the benchmarks run as
+     */
+    public static final class BenchmarkPlugin extends JavaPlugin {
+        private BenchmarkPlugin(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder, File file) {
+            super(loader, description, dataFolder, file);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package top.shjibi.plugineer.benchmark;
+
+import org.bukkit.Server;
+import org.bukkit.command.SimpleCommandMap;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>Generates the class of the stubbed server, a real class instead of a {@link java.lang.reflect.Proxy proxy}.
+ * <br>Like CraftServer, the class declares its command map in a field named {@code commandMap}, which releases before 2.0.0 read by reflection.
+ * Every method of {@link Server} is implemented by passing it to an {@link InvocationHandler}, the way a proxy does.
+ * </p>
+ */
+final class StubServerClass {
+
+    private StubServerClass() {
+    }
+
+    private static final String className = "top/shjibi/plugineer/benchmark/StubCraftServer";
+    private static final String baseName = Type.getInternalName(Base.class);
+    private static final String invokeDescriptor = "(I[Ljava/lang/Object;)Ljava/lang/Object;";
+    private static final String constructorDescriptor = "(Ljava/lang/reflect/InvocationHandler;)V";
+
+    /**
+     * The superclass of the generated class, which sends its methods to the handler
+     */
+    public abstract static class Base implements Server, StubServer.CommandMapHolder {
+        private final InvocationHandler handler;
+        private final Method[] methods;
+
+        protected Base(InvocationHandler handler) {
+            this.handler = handler;
+            this.methods = StubServerClass.methods;
+        }
+
+        protected final Object invoke(int index, Object[] args) throws Throwable {
+            return handler.invoke(this, methods[index], args);
+        }
+    }
+
+    // The methods that the generated class implements, indexed like the methods it generates
+    private static Method[] methods;
+    private static Class<?> type;
+
+    /**
+     * Creates a server that passes every method to the handler
+     *
+     * @param handler the handler of the methods, like the handler of a proxy
+     * @return the server
+     */
+    static synchronized Server newServer(InvocationHandler handler) throws ReflectiveOperationException {
+        if (type == null) type = define();
+        return (Server) type.getConstructor(InvocationHandler.class).newInstance(handler);
+    }
+
+    /**
+     * Stores the command map in the {@code commandMap} field of a server
+     *
+     * @param server     a server created by {@link #newServer}
+     * @param commandMap the command map of the server
+     */
+    static void setCommandMap(Server server, SimpleCommandMap commandMap) throws ReflectiveOperationException {
+        Field field = server.getClass().getDeclaredField("commandMap");
+        field.setAccessible(true);
+        field.set(server, commandMap);
+    }
+
+    private static Class<?> define() throws IllegalAccessException {
+        Map<String, Method> abstractMethods = new LinkedHashMap<>();
+        for (Method method : Base.class.getMethods()) {
+            if (Modifier.isAbstract(method.getModifiers())) {
+                abstractMethods.putIfAbsent(method.getName() + Type.getMethodDescriptor(method), method);
+            }
+        }
+        methods = abstractMethods.values().toArray(new Method[0]);
+
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null, baseName, null);
+        writer.visitField(Opcodes.ACC_PRIVATE, "commandMap", Type.getDescriptor(SimpleCommandMap.class), null, null).visitEnd();
+
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", constructorDescriptor, null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitVarInsn(Opcodes.ALOAD, 1);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, baseName, "<init>", constructorDescriptor, false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        for (int i = 0; i < methods.length; i++) {
+            writeMethod(writer, methods[i], i);
+        }
+        writer.visitEnd();
+        return MethodHandles.lookup().defineClass(writer.toByteArray());
+    }
+
+    // return (R) invoke(index, new Object[]{args...}), with null for no arguments like a proxy
+    private static void writeMethod(ClassWriter writer, Method method, int index) {
+        MethodVisitor visitor = writer.visitMethod(Opcodes.ACC_PUBLIC, method.getName(), Type.getMethodDescriptor(method), null, null);
+        visitor.visitCode();
+        visitor.visitVarInsn(Opcodes.ALOAD, 0);
+        visitor.visitLdcInsn(index);
+
+        Type[] parameters = Type.getArgumentTypes(method);
+        if (parameters.length == 0) {
+            visitor.visitInsn(Opcodes.ACONST_NULL);
+        } else {
+            visitor.visitLdcInsn(parameters.length);
+            visitor.visitTypeInsn(Opcodes.ANEWARRAY, "java/lang/Object");
+            int local = 1;
+            for (int i = 0; i < parameters.length; i++) {
+                visitor.visitInsn(Opcodes.DUP);
+                visitor.visitLdcInsn(i);
+                visitor.visitVarInsn(parameters[i].getOpcode(Opcodes.ILOAD), local);
+                box(visitor, parameters[i]);
+                visitor.visitInsn(Opcodes.AASTORE);
+                local += parameters[i].getSize();
+            }
+        }
+        visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, baseName, "invoke", invokeDescriptor, false);
+
+        Type returnType = Type.getReturnType(method);
+        if (returnType.getSort() == Type.VOID) {
+            visitor.visitInsn(Opcodes.POP);
+            visitor.visitInsn(Opcodes.RETURN);
+        } else {
+            unbox(visitor, returnType);
+            visitor.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+        }
+        visitor.visitMaxs(0, 0);
+        visitor.visitEnd();
+    }
+
+    private static void box(MethodVisitor visitor, Type type) {
+        String wrapper = wrapperOf(type);
+        if (wrapper == null) return;
+        visitor.visitMethodInsn(Opcodes.INVOKESTATIC, wrapper, "valueOf", "(" + type.getDescriptor() + ")L" + wrapper + ";", false);
+    }
+
+    private static void unbox(MethodVisitor visitor, Type type) {
+        String wrapper = wrapperOf(type);
+        if (wrapper == null) {
+            visitor.visitTypeInsn(Opcodes.CHECKCAST, type.getInternalName());
+            return;
+        }
+        visitor.visitTypeInsn(Opcodes.CHECKCAST, wrapper);
+        visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, wrapper, type.getClassName() + "Value", "()" + type.getDescriptor(), false);
+    }
+
+    private static String wrapperOf(Type type) {
+        return switch (type.getSort()) {
+            case Type.BOOLEAN -> "java/lang/Boolean";
+            case Type.CHAR -> "java/lang/Character";
+            case Type.BYTE -> "java/lang/Byte";
+            case Type.SHORT -> "java/lang/Short";
+            case Type.INT -> "java/lang/Integer";
+            case Type.FLOAT -> "java/lang/Float";
+            case Type.LONG -> "java/lang/Long";
+            case Type.DOUBLE -> "java/lang/Double";
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,357 @@
+package top.shjibi.plugineer.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>Checks the annotations of Plugineer command handlers and generates a static registry of them.
+ * <br>The registry is named {@code PlugineerCommandRegistry} and placed in the common package of all handlers, use the {@code plugineer.registry} option to choose another fully qualified name.
+ * Pass an instance of it to {@code CommandManager#addHandlers(HandlerRegistry)} to add every handler without reflection.
+ * </p>
+ */
+@SupportedAnnotationTypes({
+        CommandHandlerProcessor.COMMAND_INFO,
+        CommandHandlerProcessor.REGISTER_COMMAND,
+        CommandHandlerProcessor.REGISTER_COMMANDS
+})
+@SupportedOptions(CommandHandlerProcessor.REGISTRY_OPTION)
+public final class CommandHandlerProcessor extends AbstractProcessor {
+
+    static final String REGISTRY_OPTION = "plugineer.registry";
+    static final String COMMAND_INFO = "top.shjibi.plugineer.command.base.annotations.CommandInfo";
+    static final String REGISTER_COMMAND = "top.shjibi.plugineer.command.base.annotations.RegisterCommand";
+    static final String REGISTER_COMMANDS = "top.shjibi.plugineer.command.base.annotations.RegisterCommands";
+
+    private static final String COMMAND_HANDLER = "top.shjibi.plugineer.command.base.CommandHandler";
+    private static final String PLAYER_COMMAND_HANDLER = "top.shjibi.plugineer.command.base.PlayerCommandHandler";
+    private static final String CONSOLE_COMMAND_HANDLER = "top.shjibi.plugineer.command.base.ConsoleCommandHandler";
+    private static final String JAVA_PLUGIN = "org.bukkit.plugin.java.JavaPlugin";
+    private static final String DEFAULT_REGISTRY_NAME = "PlugineerCommandRegistry";
+
+    private final List<Handler> handlers = new ArrayList<>();
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Elements elements = processingEnv.getElementUtils();
+        TypeElement commandInfo = elements.getTypeElement(COMMAND_INFO);
+        if (commandInfo == null) return false;
+
+        List<Handler> found = new ArrayList<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(commandInfo)) {
+            Handler handler = check((TypeElement) element);
+            if (handler != null) found.add(handler);
+        }
+        checkOrphanRegistrations(roundEnv, REGISTER_COMMAND);
+        checkOrphanRegistrations(roundEnv, REGISTER_COMMANDS);
+
+        if (found.isEmpty()) return false;
+        if (generated) {
+            for (Handler handler : found) {
+                error(handler.element, "Command handlers generated by other annotation processors cannot be added to the registry");
+            }
+            return false;
+        }
+
+        handlers.addAll(found);
+        generated = true;
+        generateRegistry();
+        return false;
+    }
+
+    private Handler check(TypeElement element) {
+        Elements elements = processingEnv.getElementUtils();
+
+        if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(element, "@CommandInfo can only be used on concrete classes");
+            return null;
+        }
+        if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+            error(element, "A command handler must be public");
+            return null;
+        }
+        if (element.getEnclosingElement().getKind() != ElementKind.PACKAGE && !element.getModifiers().contains(Modifier.STATIC)) {
+            error(element, "A nested command handler must be static");
+            return null;
+        }
+
+        boolean isPlayerHandler = isSubtype(element, PLAYER_COMMAND_HANDLER);
+        boolean isConsoleHandler = isSubtype(element, CONSOLE_COMMAND_HANDLER);
+        TypeElement commandHandler = elements.getTypeElement(COMMAND_HANDLER);
+        if (commandHandler != null && !isSubtype(element, COMMAND_HANDLER)) {
+            error(element, "@CommandInfo can only be used on subclasses of CommandHandler");
+            return null;
+        }
+        if (!hasPluginConstructor(element)) {
+            error(element, "A command handler must have a public constructor that takes a " + JAVA_PLUGIN);
+            return null;
+        }
+
+        Map<String, AnnotationValue> info = values(findAnnotation(element, COMMAND_INFO));
+        List<String> names = strings(info.get("name"));
+        boolean valid = true;
+        if (names.isEmpty()) {
+            error(element, "A command handler must handle at least one command");
+            valid = false;
+        }
+        for (String name : names) {
+            if (name.isBlank() || name.contains(" ")) {
+                error(element, "Invalid command name: '" + name + "'");
+                valid = false;
+            }
+        }
+        if ((int) info.get("minArgs").getValue() < 0) {
+            error(element, "minArgs cannot be negative");
+            valid = false;
+        }
+        if ((long) info.get("cooldown").getValue() < 0) {
+            error(element, "cooldown cannot be negative");
+            valid = false;
+        }
+        if ((int) info.get("burst").getValue() < 1) {
+            error(element, "burst must be at least 1");
+            valid = false;
+        }
+
+        boolean silent = (boolean) info.get("silent").getValue();
+        if (silent && isConsoleHandler) {
+            error(element, "A ConsoleCommandHandler cannot be silent, only commands executed by players can be silent");
+            valid = false;
+        } else if (silent && !isPlayerHandler) {
+            warning(element, "Only a PlayerCommandHandler can be silent, 'silent' has no effect here");
+        }
+
+        List<Map<String, AnnotationValue>> registrations = new ArrayList<>();
+        AnnotationMirror single = findAnnotation(element, REGISTER_COMMAND);
+        if (single != null) registrations.add(values(single));
+        AnnotationMirror container = findAnnotation(element, REGISTER_COMMANDS);
+        if (container != null) {
+            for (AnnotationValue value : list(values(container).get("value"))) {
+                registrations.add(values((AnnotationMirror) value.getValue()));
+            }
+        }
+
+        for (Map<String, AnnotationValue> registration : registrations) {
+            String name = (String) registration.get("name").getValue();
+            if (names.stream().noneMatch(n -> n.equalsIgnoreCase(name))) {
+                error(element, "@RegisterCommand '" + name + "' is not one of the names in @CommandInfo, it would never be registered");
+                valid = false;
+            } else if (silent) {
+                warning(element, "@RegisterCommand '" + name + "' registers a silent command, which the server will never run");
+            }
+        }
+
+        return valid ? new Handler(element, info, registrations) : null;
+    }
+
+    private void checkOrphanRegistrations(RoundEnvironment roundEnv, String annotationName) {
+        TypeElement annotation = processingEnv.getElementUtils().getTypeElement(annotationName);
+        if (annotation == null) return;
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            if (findAnnotation(element, COMMAND_INFO) == null) {
+                error(element, "@RegisterCommand can only be used together with @CommandInfo");
+            }
+        }
+    }
+
+    private void generateRegistry() {
+        String registryName = processingEnv.getOptions().get(REGISTRY_OPTION);
+        if (registryName == null) {
+            String commonPackage = commonPackage();
+            if (commonPackage.isEmpty()) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Command handlers have no common package, set the '" + REGISTRY_OPTION + "' option to name the registry");
+                return;
+            }
+            registryName = commonPackage + "." + DEFAULT_REGISTRY_NAME;
+        }
+
+        int dot = registryName.lastIndexOf('.');
+        String packageName = dot < 0 ? "" : registryName.substring(0, dot);
+        String simpleName = registryName.substring(dot + 1);
+        Elements elements = processingEnv.getElementUtils();
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) source.append("package ").append(packageName).append(";\n\n");
+        source.append("import top.shjibi.plugineer.command.HandlerDefinition;\n")
+                .append("import top.shjibi.plugineer.command.HandlerRegistry;\n")
+                .append("import top.shjibi.plugineer.command.base.CommandMetadata;\n")
+                .append("import top.shjibi.plugineer.command.base.CommandRegistration;\n\n")
+                .append("import java.util.List;\n\n")
+                .append("/**\n * The command handlers of this project, generated by the Plugineer annotation processor.\n */\n");
+        if (elements.getTypeElement("javax.annotation.processing.Generated") != null) {
+            source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        }
+        source.append("public final class ").append(simpleName).append(" implements HandlerRegistry {\n\n")
+                .append("    private static final List<HandlerDefinition> DEFINITIONS = List.of(");
+
+        for (int i = 0; i < handlers.size(); i++) {
+            Handler handler = handlers.get(i);
+            String className = handler.element.getQualifiedName().toString();
+            Map<String, AnnotationValue> info = handler.info;
+
+            source.append(i == 0 ? "\n" : ",\n")
+                    .append("            new HandlerDefinition(").append(className).append(".class,\n")
+                    .append("                    new CommandMetadata(")
+                    .append(stringArray(info.get("name"))).append(", ")
+                    .append(info.get("silent").getValue()).append(", ")
+                    .append(info.get("minArgs").getValue()).append(", ")
+                    .append(info.get("async").getValue()).append(", ")
+                    .append(stringArray(info.get("playerOnlyMsg"))).append(", ")
+                    .append(stringArray(info.get("consoleOnlyMsg"))).append(", ")
+                    .append("new CommandRegistration[]{");
+            for (int j = 0; j < handler.registrations.size(); j++) {
+                Map<String, AnnotationValue> registration = handler.registrations.get(j);
+                source.append(j == 0 ? "\n" : ",\n")
+                        .append("                            new CommandRegistration(")
+                        .append(elements.getConstantExpression(registration.get("name").getValue())).append(", ")
+                        .append(elements.getConstantExpression(registration.get("description").getValue())).append(", ")
+                        .append(elements.getConstantExpression(registration.get("usageMessage").getValue())).append(", ")
+                        .append(stringArray(registration.get("aliases"))).append(", ")
+                        .append(registration.get("force").getValue()).append(")");
+            }
+            if (!handler.registrations.isEmpty()) source.append("\n                    ");
+            source.append("}, ")
+                    .append(info.get("cooldown").getValue()).append("L, ")
+                    .append(info.get("burst").getValue()).append(", ")
+                    .append(info.get("globalCooldown").getValue()).append(", ")
+                    .append(stringArray(info.get("cooldownMsg"))).append("),\n")
+                    .append("                    ").append(className).append("::new)");
+        }
+
+        source.append("\n    );\n\n")
+                .append("    @Override\n")
+                .append("    public List<HandlerDefinition> getDefinitions() {\n")
+                .append("        return DEFINITIONS;\n")
+                .append("    }\n")
+                .append("}\n");
+
+        Element[] origins = handlers.stream().map(handler -> handler.element).toArray(Element[]::new);
+        try (Writer writer = processingEnv.getFiler().createSourceFile(registryName, origins).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write command registry " + registryName + ": " + e.getMessage());
+        }
+    }
+
+    private String commonPackage() {
+        Elements elements = processingEnv.getElementUtils();
+        String common = null;
+        for (Handler handler : handlers) {
+            String packageName = elements.getPackageOf(handler.element).getQualifiedName().toString();
+            if (common == null) {
+                common = packageName;
+                continue;
+            }
+            while (!packageName.equals(common) && !packageName.startsWith(common + ".")) {
+                int dot = common.lastIndexOf('.');
+                common = dot < 0 ? "" : common.substring(0, dot);
+                if (common.isEmpty()) return common;
+            }
+        }
+        return common == null ? "" : common;
+    }
+
+    private boolean hasPluginConstructor(TypeElement element) {
+        Types types = processingEnv.getTypeUtils();
+        for (Element enclosed : element.getEnclosedElements()) {
+            if (enclosed.getKind() != ElementKind.CONSTRUCTOR || !enclosed.getModifiers().contains(Modifier.PUBLIC)) continue;
+            List<? extends TypeMirror> parameters = ((ExecutableElement) enclosed).getParameters().stream().map(Element::asType).toList();
+            if (parameters.size() == 1 && types.erasure(parameters.get(0)).toString().equals(JAVA_PLUGIN)) return true;
+        }
+        return false;
+    }
+
+    private boolean isSubtype(TypeElement element, String superName) {
+        TypeElement superElement = processingEnv.getElementUtils().getTypeElement(superName);
+        if (superElement == null) return false;
+        Types types = processingEnv.getTypeUtils();
+        return types.isSubtype(types.erasure(element.asType()), types.erasure(superElement.asType()));
+    }
+
+    private AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(annotationName)) return mirror;
+        }
+        return null;
+    }
+
+    private Map<String, AnnotationValue> values(AnnotationMirror mirror) {
+        Map<String, AnnotationValue> map = new HashMap<>();
+        processingEnv.getElementUtils().getElementValuesWithDefaults(mirror)
+                .forEach((key, value) -> map.put(key.getSimpleName().toString(), value));
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<? extends AnnotationValue> list(AnnotationValue value) {
+        Object object = value.getValue();
+        // A single element may be written without braces
+        return object instanceof List ? (List<? extends AnnotationValue>) object : List.of(value);
+    }
+
+    private static List<String> strings(AnnotationValue value) {
+        List<String> strings = new ArrayList<>();
+        for (AnnotationValue element : list(value)) {
+            strings.add((String) element.getValue());
+        }
+        return strings;
+    }
+
+    private String stringArray(AnnotationValue value) {
+        Elements elements = processingEnv.getElementUtils();
+        StringBuilder builder = new StringBuilder("new String[]{");
+        List<String> strings = strings(value);
+        for (int i = 0; i < strings.size(); i++) {
+            if (i > 0) builder.append(", ");
+            builder.append(elements.getConstantExpression(strings.get(i)));
+        }
+        return builder.append("}").toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private void warning(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message, element);
+    }
+
+    private static final class Handler {
+        private final TypeElement element;
+        private final Map<String, AnnotationValue> info;
+        private final List<Map<String, AnnotationValue>> registrations;
+
+        private Handler(TypeElement element, Map<String, AnnotationValue> info, List<Map<String, AnnotationValue>> registrations) {
+            this.element = element;
+            this.info = info;
+            this.registrations = registrations;
+        }
+    }
+}
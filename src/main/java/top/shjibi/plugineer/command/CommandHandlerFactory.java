@@ -0,0 +1,21 @@
+package top.shjibi.plugineer.command;
+
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+import top.shjibi.plugineer.command.base.CommandHandler;
+
+/**
+ * Creates a command handler for a plugin, usually a reference to the constructor of the handler.
+ */
+@FunctionalInterface
+public interface CommandHandlerFactory {
+
+    /**
+     * Creates a command handler
+     *
+     * @param plugin the plugin that the handler works with
+     * @return the handler
+     */
+    @NotNull
+    CommandHandler create(@NotNull JavaPlugin plugin);
+}
@@ -1,137 +1,460 @@
 package top.shjibi.plugineer.command;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.bukkit.Bukkit;
-import org.bukkit.Server;
+import org.bukkit.ChatColor;
 import org.bukkit.command.*;
-import org.bukkit.plugin.Plugin;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import top.shjibi.plugineer.command.base.AsyncCommandExecutor;
 import top.shjibi.plugineer.command.base.CommandHandler;
+import top.shjibi.plugineer.command.base.CommandMetadata;
+import top.shjibi.plugineer.command.base.CommandRegistration;
+import top.shjibi.plugineer.command.base.LazyCommandHandler;
+import top.shjibi.plugineer.command.base.PlayerCommandHandler;
 import top.shjibi.plugineer.command.base.annotations.RegisterCommand;
 import top.shjibi.plugineer.command.base.listener.SilentCommandListener;
+import top.shjibi.plugineer.command.base.listener.SilentEntry;
+import top.shjibi.plugineer.command.metrics.CommandMetrics;
+import top.shjibi.plugineer.command.metrics.CommandSnapshot;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
 
 /**
  * A class that helps you manage your commands.
  */
 public final class CommandManager {
 
-    @SuppressWarnings("unchecked")
     private CommandManager(@NotNull JavaPlugin plugin) {
         Preconditions.checkNotNull(plugin, "'plugin' cannot be null!");
         this.plugin = plugin;
-        commandHandlers = new ArrayList<>();
         silentCommandListener = SilentCommandListener.get(plugin);
 
         try {
-            Server server = Bukkit.getServer();
-            Field commandMapField = server.getClass().getDeclaredField("commandMap");
-            commandMapField.setAccessible(true);
-            commandMap = (SimpleCommandMap) commandMapField.get(server);
-
-            Field knownCommandsField = SimpleCommandMap.class.getDeclaredField("knownCommands");
-            knownCommandsField.setAccessible(true);
-            knownCommands = (Map<String, Command>) knownCommandsField.get(commandMap);
+            commandMap = CommandMapAccessor.getCommandMap(Bukkit.getServer());
+            knownCommands = CommandMapAccessor.getKnownCommands(commandMap);
         } catch (ReflectiveOperationException e) {
             throw new RuntimeException("Cannot get commandMap or knownCommands", e);
         }
     }
 
 
-    @Nullable
-    private static CommandManager instance;
+    private static final Map<JavaPlugin, CommandManager> managers = new ConcurrentHashMap<>();
     @NotNull
     private final JavaPlugin plugin;
+    // Replaced as a whole, so readers always see a complete set of handlers
+    @NotNull
+    private volatile List<CommandHandler> commandHandlers = Collections.emptyList();
+    @NotNull
+    private volatile List<LazyCommandHandler> lazyHandlers = Collections.emptyList();
+    private volatile boolean lazy;
+    // How long adding each handler took, in nanoseconds, and how long the command map took for all of them
     @NotNull
-    private final List<CommandHandler> commandHandlers;
+    private final Map<Class<? extends CommandHandler>, Long> registrationTimes = new ConcurrentHashMap<>();
+    private long commandMapTime;
+    // The registrations of the commands registered for handlers, by lower-cased name
+    @NotNull
+    private Map<String, CommandRegistration> handlerRegistrations = Collections.emptyMap();
     @NotNull
     private final SilentCommandListener silentCommandListener;
     @NotNull
     private final Map<String, Command> knownCommands;
     @NotNull
     private final SimpleCommandMap commandMap;
+    @NotNull
+    private final Map<String, Set<String>> commandKeys = new HashMap<>();
+    @NotNull
+    private final CommandMetrics metrics = new CommandMetrics();
+    @Nullable
+    private volatile AsyncCommandExecutor asyncExecutor;
 
     /**
      * Gets or create the only instance of {@link CommandManager} for a plugin.
+     * <br>Every plugin has its own manager, getting an existing one doesn't lock.
      *
      * @return the instance of {@link CommandManager} for a plugin
      */
     @NotNull
-    public static CommandManager get(JavaPlugin plugin) {
-        if (instance == null) instance = new CommandManager(plugin);
-        return instance;
+    public static CommandManager get(@NotNull JavaPlugin plugin) {
+        Preconditions.checkNotNull(plugin, "'plugin' cannot be null!");
+        CommandManager manager = managers.get(plugin);
+        if (manager != null) return manager;
+        return managers.computeIfAbsent(plugin, CommandManager::new);
+    }
+
+    /**
+     * Gets an immutable copy of the managers of every plugin.
+     *
+     * @return an immutable copy of the managers of every plugin
+     */
+    @NotNull
+    public static List<CommandManager> getManagers() {
+        return new ArrayList<>(managers.values());
+    }
+
+    /**
+     * Removes the silent handlers of this manager, shuts down the executor of its asynchronous commands and forgets it, this is done on its own when the plugin is disabled.
+     * <br>The next {@link #get(JavaPlugin)} for the plugin creates a new manager.
+     */
+    public void shutdown() {
+        silentCommandListener.removeSilentHandlers(plugin);
+        managers.remove(plugin, this);
+        AsyncCommandExecutor executor = asyncExecutor;
+        if (executor != null) executor.shutdown();
+    }
+
+    /**
+     * Gets the executor that runs the asynchronous commands of this manager, it's created the first time it's needed and shut down by {@link #shutdown()}.
+     *
+     * @return the executor of asynchronous commands
+     */
+    @NotNull
+    public AsyncCommandExecutor getAsyncExecutor() {
+        AsyncCommandExecutor executor = asyncExecutor;
+        if (executor != null) return executor;
+        synchronized (this) {
+            if (asyncExecutor == null) asyncExecutor = new AsyncCommandExecutor(plugin);
+            return asyncExecutor;
+        }
     }
 
     /**
      * Adds and binds all the provided command handlers, if the given handler is annotated by {@link RegisterCommand}, also registers the commands to the server.
+     * <br>The argument graph of every handler is compiled here, once. In {@link #setLazy(boolean) lazy mode}, handlers are only created when first used.
      *
      * @param handlerClasses handler classes to add
      */
     public void addHandlers(@NotNull Class<? extends CommandHandler>[] handlerClasses) {
+        Batch batch = new Batch();
         for (Class<? extends CommandHandler> clazz : handlerClasses) {
-            try {
-                CommandHandler handler = clazz.getConstructor(JavaPlugin.class).newInstance(plugin);
-                List<String> nameList = Lists.newArrayList(handler.getNames());
-
-                for (RegisterCommand info : handler.getClass().getAnnotationsByType(RegisterCommand.class)) {
-                    String name = info.name().toLowerCase(Locale.ENGLISH);
-                    if (nameList.contains(name)) {
-                        registerCommand(info.force(),
-                                info.name(),
-                                info.description(),
-                                info.usageMessage(),
-                                info.aliases());
-                    }
-                }
+            batch.add(clazz, CommandMetadata.of(clazz), p -> newHandler(clazz, p));
+        }
+        replaceHandlers(Collections.emptyList(), Collections.emptyList(), batch);
+    }
+
+    /**
+     * Adds and binds all the command handlers of a registry, usually one generated by the Plugineer annotation processor.
+     * <br>Handlers are created by their factories and their metadata comes from the registry, so no reflection is involved.
+     *
+     * @param registry the registry of handlers to add
+     */
+    public void addHandlers(@NotNull HandlerRegistry registry) {
+        replaceHandlers(Collections.emptyList(), Collections.emptyList(), batchOf(registry));
+    }
+
+    /**
+     * Replaces every handler of this manager with new instances of the provided ones, to reload them without restarting the server.
+     * <br>Only the commands that were added, removed or changed are registered or unregistered, the others are rebound to the new handlers.
+     * A command handled before and after the reload is never missing, and the command lists of online players are refreshed once.
+     *
+     * @param handlerClasses handler classes to replace the handlers with
+     */
+    public void reloadHandlers(@NotNull Class<? extends CommandHandler>[] handlerClasses) {
+        Batch batch = new Batch();
+        for (Class<? extends CommandHandler> clazz : handlerClasses) {
+            batch.add(clazz, CommandMetadata.of(clazz), p -> newHandler(clazz, p));
+        }
+        replaceHandlers(commandHandlers, lazyHandlers, batch);
+    }
+
+    /**
+     * Replaces every handler of this manager with the command handlers of a registry, see {@link #reloadHandlers(Class[])}.
+     *
+     * @param registry the registry of handlers to replace the handlers with
+     */
+    public void reloadHandlers(@NotNull HandlerRegistry registry) {
+        replaceHandlers(commandHandlers, lazyHandlers, batchOf(registry));
+    }
 
-                handler.bind(this);
-                commandHandlers.add(handler);
-            } catch (ReflectiveOperationException e) {
-                throw new RuntimeException("Cannot bind command handler: " + clazz.getSimpleName(), e);
+    /**
+     * Unbinds and removes the handlers of the given classes, and unregisters the commands registered for them.
+     *
+     * @param handlerClasses handler classes to remove
+     */
+    public void removeHandlers(@NotNull Collection<Class<? extends CommandHandler>> handlerClasses) {
+        List<CommandHandler> removed = new ArrayList<>();
+        for (CommandHandler handler : commandHandlers) {
+            if (handlerClasses.contains(handler.getClass())) removed.add(handler);
+        }
+        List<LazyCommandHandler> removedLazy = new ArrayList<>();
+        for (LazyCommandHandler handler : lazyHandlers) {
+            if (handlerClasses.contains(handler.getHandlerClass())) removedLazy.add(handler);
+        }
+        if (!removed.isEmpty() || !removedLazy.isEmpty()) replaceHandlers(removed, removedLazy, new Batch());
+    }
+
+    private Batch batchOf(HandlerRegistry registry) {
+        Batch batch = new Batch();
+        for (HandlerDefinition definition : registry.getDefinitions()) {
+            CommandMetadata.register(definition.getHandlerClass(), definition.getMetadata());
+            batch.add(definition.getHandlerClass(), definition.getMetadata(), definition.getFactory());
+        }
+        return batch;
+    }
+
+    private static CommandHandler newHandler(Class<? extends CommandHandler> clazz, JavaPlugin plugin) {
+        try {
+            return clazz.getConstructor(JavaPlugin.class).newInstance(plugin);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Cannot bind command handler: " + clazz.getSimpleName(), e);
+        }
+    }
+
+    // Handlers to add, created right away unless the manager is lazy
+    private final class Batch {
+        private final List<CommandHandler> handlers = new ArrayList<>();
+        private final List<CommandMetadata> metadata = new ArrayList<>();
+        private final List<LazyCommandHandler> lazyHandlers = new ArrayList<>();
+        private final Map<Class<? extends CommandHandler>, Long> times = new HashMap<>();
+
+        private void add(Class<? extends CommandHandler> clazz, CommandMetadata info, CommandHandlerFactory factory) {
+            long start = System.nanoTime();
+            if (lazy) {
+                lazyHandlers.add(new LazyCommandHandler(clazz, info, factory));
+            } else {
+                handlers.add(factory.create(plugin));
+                metadata.add(info);
+            }
+            times.merge(clazz, System.nanoTime() - start, Long::sum);
+        }
+    }
+
+    /*
+     * Swaps some handlers for others:
+     * the registrations of the new set are diffed against the current ones, so unchanged commands stay registered,
+     * the new handlers are bound before the removed ones are unbound, so every label they share moves over in one step.
+     */
+    private synchronized void replaceHandlers(Collection<CommandHandler> removed, Collection<LazyCommandHandler> removedLazy, Batch added) {
+        // Compiled before anything changes, so a broken argument graph leaves the manager as it was
+        for (CommandHandler handler : added.handlers) {
+            long start = System.nanoTime();
+            handler.compileArguments();
+            added.times.merge(handler.getClass(), System.nanoTime() - start, Long::sum);
+        }
+
+        Map<String, CommandRegistration> registrations = new LinkedHashMap<>(handlerRegistrations);
+        for (CommandHandler handler : removed) {
+            for (String name : handler.getNames()) {
+                registrations.remove(name);
+            }
+        }
+        for (LazyCommandHandler handler : removedLazy) {
+            for (String name : handler.getNames()) {
+                registrations.remove(name);
             }
         }
+        for (int i = 0; i < added.handlers.size(); i++) {
+            putRegistrations(registrations, added.handlers.get(i).getNames(), added.metadata.get(i));
+        }
+        for (LazyCommandHandler handler : added.lazyHandlers) {
+            putRegistrations(registrations, handler.getNames(), handler.getMetadata());
+        }
+
+        long start = System.nanoTime();
+        List<String> stale = new ArrayList<>();
+        for (Map.Entry<String, CommandRegistration> entry : handlerRegistrations.entrySet()) {
+            if (!entry.getValue().equals(registrations.get(entry.getKey()))) stale.add(entry.getValue().getName());
+        }
+        List<CommandRegistration> fresh = new ArrayList<>();
+        for (Map.Entry<String, CommandRegistration> entry : registrations.entrySet()) {
+            if (!entry.getValue().equals(handlerRegistrations.get(entry.getKey()))) fresh.add(entry.getValue());
+        }
+        if (!stale.isEmpty()) removeCommands(stale);
+        if (!fresh.isEmpty()) registerAll(fresh);
+        commandMapTime += System.nanoTime() - start;
+
+        for (CommandHandler handler : added.handlers) {
+            long bindStart = System.nanoTime();
+            handler.bind(this);
+            added.times.merge(handler.getClass(), System.nanoTime() - bindStart, Long::sum);
+        }
+        for (LazyCommandHandler handler : added.lazyHandlers) {
+            long bindStart = System.nanoTime();
+            handler.bind(this);
+            added.times.merge(handler.getHandlerClass(), System.nanoTime() - bindStart, Long::sum);
+        }
+        List<SilentEntry> unbound = new ArrayList<>();
+        for (CommandHandler handler : removed) {
+            if (handler instanceof PlayerCommandHandler) unbound.add((PlayerCommandHandler) handler);
+        }
+        for (LazyCommandHandler handler : removedLazy) {
+            unbound.add(handler);
+            if (handler.isCreated() && handler.isSilent()) unbound.add(handler.getSilentHandler());
+        }
+        silentCommandListener.removeSilentHandlers(unbound);
+        for (CommandHandler handler : removed) {
+            handler.unbind();
+            registrationTimes.remove(handler.getClass());
+        }
+        for (LazyCommandHandler handler : removedLazy) {
+            handler.unbind();
+            registrationTimes.remove(handler.getHandlerClass());
+        }
+        registrationTimes.putAll(added.times);
+
+        List<CommandHandler> handlers = new ArrayList<>(commandHandlers);
+        handlers.removeAll(removed);
+        handlers.addAll(added.handlers);
+        commandHandlers = Collections.unmodifiableList(handlers);
+        List<LazyCommandHandler> lazyHandlers = new ArrayList<>(this.lazyHandlers);
+        lazyHandlers.removeAll(removedLazy);
+        lazyHandlers.addAll(added.lazyHandlers);
+        this.lazyHandlers = Collections.unmodifiableList(lazyHandlers);
+        handlerRegistrations = registrations;
+        if (!stale.isEmpty() || !fresh.isEmpty()) {
+            start = System.nanoTime();
+            syncCommands();
+            commandMapTime += System.nanoTime() - start;
+        }
+    }
+
+    private static void putRegistrations(Map<String, CommandRegistration> registrations, String[] names, CommandMetadata metadata) {
+        List<String> nameList = Arrays.asList(names);
+        for (CommandRegistration info : metadata.getRegistrations()) {
+            String key = info.getName().toLowerCase(Locale.ENGLISH);
+            if (nameList.contains(key)) registrations.put(key, info);
+        }
     }
 
     /**
-     * Registers a command using the given name, description and aliases
+     * Sets whether handlers added from now on are created lazily, the first time one of their commands is run, completed or silently dispatched.
+     * <br>Their commands are registered right away from the metadata of their classes, see {@link LazyCommandHandler}.
+     *
+     * @param lazy whether to create handlers lazily
+     */
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    /**
+     * Gets whether handlers added from now on are created lazily.
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Gets an immutable copy of the lazy handlers of this manager, created or not.
+     *
+     * @return an immutable copy of the lazy handlers
+     */
+    @NotNull
+    public List<LazyCommandHandler> getLazyHandlers() {
+        return new ArrayList<>(lazyHandlers);
+    }
+
+    /**
+     * Gets how long adding each handler took, in nanoseconds.
+     * <br>The time covers creating, compiling and binding a handler, or only reading its metadata and binding it if it's lazy.
+     * Registering the commands to the command map is done for all the handlers at once, so it isn't included.
+     *
+     * @return a copy of the registration time of every handler, by class
+     */
+    @NotNull
+    public Map<Class<? extends CommandHandler>, Long> getRegistrationTimes() {
+        return new HashMap<>(registrationTimes);
+    }
+
+    /**
+     * Logs how long adding each handler took, slowest first, usually at the end of {@link JavaPlugin#onEnable()} to find out what slows it down.
+     * <br>Lazy handlers also show how long creating them took, if they have been created.
+     */
+    public void logRegistrationReport() {
+        Map<Class<? extends CommandHandler>, LazyCommandHandler> lazyByClass = new HashMap<>();
+        for (LazyCommandHandler handler : lazyHandlers) {
+            lazyByClass.put(handler.getHandlerClass(), handler);
+        }
+        List<Map.Entry<Class<? extends CommandHandler>, Long>> times = new ArrayList<>(registrationTimes.entrySet());
+        times.sort(Map.Entry.<Class<? extends CommandHandler>, Long>comparingByValue().reversed());
+
+        long total = 0;
+        for (Map.Entry<Class<? extends CommandHandler>, Long> entry : times) {
+            total += entry.getValue();
+        }
+        StringBuilder report = new StringBuilder("Added ").append(times.size()).append(" command handlers in ").append(toMillis(total))
+                .append(", ").append(lazyByClass.size()).append(" of them lazily, the command map took ").append(toMillis(commandMapTime));
+        for (Map.Entry<Class<? extends CommandHandler>, Long> entry : times) {
+            report.append("\n  ").append(entry.getKey().getSimpleName()).append(": ").append(toMillis(entry.getValue()));
+            LazyCommandHandler handler = lazyByClass.get(entry.getKey());
+            if (handler == null) continue;
+            long creationTime = handler.getCreationTime();
+            report.append(creationTime < 0 ? " (lazy, not created yet)" : " (lazy, created in " + toMillis(creationTime) + ")");
+        }
+        plugin.getLogger().info(report.toString());
+    }
+
+    /**
+     * Registers a command using the given name, description and aliases.
+     * <br>The command lists of online players aren't refreshed, call {@link #syncCommands()} once after registering commands one at a time.
      *
      * @param force       If a command with the same name is already registered, whether to replace the old one with this
      * @param name        Name of the command
      * @param description Description of the command
      * @param usage       Usage of the command
      * @param aliases     Aliases of the command
-     * @return the registered command or null if it was unsuccessful to register the command
+     * @return the registered command or null if it was unsuccessful to register the command, see {@link #registerCommands(Collection)}
      */
     public Command registerCommand(boolean force, @NotNull String name, @Nullable String description, @Nullable String usage, @Nullable String... aliases) {
-        try {
-            Constructor<PluginCommand> pluginCommandConstructor = PluginCommand.class.getDeclaredConstructor(String.class, Plugin.class);
-            pluginCommandConstructor.setAccessible(true);
+        CommandRegistration registration = new CommandRegistration(name,
+                description == null ? "" : description,
+                usage == null ? "" : usage,
+                aliases == null ? new String[0] : aliases,
+                force);
+        return registerAll(Collections.singletonList(registration)).get(0);
+    }
+
+    /**
+     * Registers several commands at once.
+     * <br>Commands that replace registered ones are unregistered in a single batch first, and the command lists of online players are refreshed once at the end.
+     * <br>A command is unsuccessful to register when its name is still taken, even if it's forced, for example by a command that isn't in the known commands.
+     * It may then still be reachable through its <code>plugin:name</code> label, like a command that Bukkit registers with a fallback prefix.
+     *
+     * @param registrations the commands to register
+     * @return the registered commands, in the same order, with null for each command that was unsuccessful to register
+     */
+    @NotNull
+    public List<Command> registerCommands(@NotNull Collection<CommandRegistration> registrations) {
+        List<Command> commands = registerAll(registrations);
+        syncCommands();
+        return commands;
+    }
 
-            PluginCommand command = pluginCommandConstructor.newInstance(name, plugin);
-            command.setDescription(description == null ? "" : description);
-            command.setAliases(aliases == null ? Collections.emptyList() : Lists.newArrayList(aliases));
-            command.setUsage(usage == null ? "" : usage);
+    private List<Command> registerAll(Collection<CommandRegistration> registrations) {
+        Set<String> replaced = new HashSet<>();
+        for (CommandRegistration registration : registrations) {
+            if (registration.isForce() && knownCommands.containsKey(registration.getName().toLowerCase(Locale.ENGLISH))) {
+                replaced.add(registration.getName());
+            }
+        }
+        if (!replaced.isEmpty()) removeCommands(replaced);
 
-            boolean result = commandMap.register(plugin.getName(), command);
+        List<Command> commands = new ArrayList<>(registrations.size());
+        for (CommandRegistration registration : registrations) {
+            commands.add(register(registration));
+        }
+        return commands;
+    }
 
-            if (!result) {
-                if (!force) {
-                    return null;
-                }
-                unregisterCommand(name);
-                commandMap.register(plugin.getName(), command);
-                return commandMap.getCommand("name");
+    private Command register(CommandRegistration registration) {
+        String name = registration.getName();
+        try {
+            PluginCommand command = CommandMapAccessor.newPluginCommand(name, plugin);
+            List<String> aliases = new ArrayList<>();
+            for (String alias : registration.getAliases()) {
+                if (alias != null && !alias.isEmpty()) aliases.add(alias);
             }
-            return commandMap.getCommand("name");
+            command.setDescription(registration.getDescription());
+            command.setAliases(aliases);
+            command.setUsage(registration.getUsageMessage());
+
+            boolean result = commandMap.register(plugin.getName(), command);
+            indexCommand(command);
+            return result ? command : null;
         } catch (ReflectiveOperationException e) {
             Bukkit.getLogger().log(Level.SEVERE, "Cannot register command: " + name);
             e.printStackTrace();
@@ -139,27 +462,92 @@ public final class CommandManager {
         return null;
     }
 
+    // Remembers every key of knownCommands that points to the command
+    private void indexCommand(PluginCommand command) {
+        String prefix = plugin.getName().toLowerCase(Locale.ENGLISH).trim();
+        Set<String> keys = commandKeys.computeIfAbsent(command.getName(), k -> new HashSet<>());
+        List<String> labels = new ArrayList<>(command.getAliases());
+        labels.add(command.getName());
+        for (String label : labels) {
+            String key = label.toLowerCase(Locale.ENGLISH).trim();
+            if (knownCommands.get(key) == command) keys.add(key);
+            if (knownCommands.get(prefix + ":" + key) == command) keys.add(prefix + ":" + key);
+        }
+    }
+
     /**
-     * Unregisters commands with the given name
+     * Unregisters commands with the given name.
+     * <br>The command lists of online players aren't refreshed, call {@link #syncCommands()} once after unregistering commands one at a time.
      *
      * @param name Name of the command to unregister
      */
     public void unregisterCommand(String name) {
-        Set<Map.Entry<String, Command>> entrySet = knownCommands.entrySet();
-        entrySet.stream()
-                .filter(x -> x.getValue().getName().equals(name))
-                .peek(x -> x.getValue().unregister(commandMap))
-                .collect(Collectors.toList()).forEach(entrySet::remove);
+        removeCommands(Collections.singleton(name));
+    }
+
+    /**
+     * Unregisters commands with the given names at once.
+     * <br>Commands registered by this manager are removed through its index of their keys, including namespaced keys and aliases. Other commands are removed in a single pass over the known commands.
+     * The command lists of online players are refreshed once at the end.
+     *
+     * @param names Names of the commands to unregister
+     */
+    public void unregisterCommands(@NotNull Collection<String> names) {
+        removeCommands(names);
+        syncCommands();
+    }
+
+    private void removeCommands(Collection<String> names) {
+        Set<String> unindexed = new HashSet<>();
+        for (String name : names) {
+            Set<String> keys = commandKeys.remove(name);
+            if (keys == null) {
+                unindexed.add(name);
+                continue;
+            }
+            for (String key : keys) {
+                Command command = knownCommands.get(key);
+                if (command != null && command.getName().equals(name)) {
+                    knownCommands.remove(key);
+                    command.unregister(commandMap);
+                }
+            }
+        }
+        if (unindexed.isEmpty()) return;
+
+        Iterator<Map.Entry<String, Command>> iterator = knownCommands.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Command command = iterator.next().getValue();
+            if (unindexed.contains(command.getName())) {
+                command.unregister(commandMap);
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the command tree of the server and sends the new command lists to online players.
+     * <br>Batch registration, unregistration and handler changes do this once by themselves, commands registered or unregistered one at a time need it to show up in the lists.
+     */
+    public void syncCommands() {
+        CommandMapAccessor.syncCommands(Bukkit.getServer());
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            player.updateCommands();
+        }
     }
 
     /**
-     * Gets an immutable copy of command handler list.
+     * Gets an immutable copy of command handler list, lazy handlers are included once they are created.
      *
      * @return am immutable copy of command handler list
      */
     @NotNull
     public List<CommandHandler> getCommandHandlers() {
-        return new ArrayList<>(commandHandlers);
+        List<CommandHandler> handlers = new ArrayList<>(commandHandlers);
+        for (LazyCommandHandler handler : lazyHandlers) {
+            if (handler.isCreated()) handlers.add(handler.getHandler());
+        }
+        return handlers;
     }
 
     /**
@@ -173,7 +561,7 @@ public final class CommandManager {
     }
 
     /**
-     * Adds a simple command to the server with the given arguments
+     * Adds a simple command to the server with the given arguments, like {@link #registerCommand} the command lists of online players aren't refreshed
      *
      * @param force       If a command with the same name is already registered, whether to replace the old one with this
      * @param name        Name of the command
@@ -195,7 +583,53 @@ public final class CommandManager {
     }
 
     /**
-     * Gets the {@link CommandHandler} instance based on the given class
+     * Adds a command that shows the slowest commands of this manager, by the 99th percentile of their latencies
+     *
+     * @param name       Name of the command
+     * @param permission Permission required to run the command, null if anyone can run it
+     * @param count      How many commands to show at most
+     * @return the registered command or null if it was unsuccessful to register the command
+     */
+    @Nullable
+    public Command addMetricsCommand(@NotNull String name, @Nullable String permission, int count) {
+        Preconditions.checkArgument(count > 0, "'count' must be positive!");
+        Command command = addSimpleCommand(false, name, "Shows the slowest commands", "/<command>", null, (sender, cmd, label, args) -> {
+            List<CommandSnapshot> slowest = metrics.slowest(count);
+            if (slowest.isEmpty()) {
+                sender.sendMessage(ChatColor.GRAY + "No command has run yet.");
+                return true;
+            }
+            sender.sendMessage(ChatColor.GOLD + "Slowest commands:");
+            for (CommandSnapshot snapshot : slowest) {
+                sender.sendMessage(ChatColor.YELLOW + snapshot.getName() + ChatColor.GRAY
+                        + " runs: " + snapshot.getExecutions()
+                        + " errors: " + snapshot.getErrors()
+                        + " p50: " + toMillis(snapshot.getP50())
+                        + " p99: " + toMillis(snapshot.getP99())
+                        + " max: " + toMillis(snapshot.getMax()));
+            }
+            return true;
+        }, null);
+        if (command != null) command.setPermission(permission);
+        return command;
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1_000_000.0);
+    }
+
+    /**
+     * Gets the live statistics of the commands handled by this manager
+     *
+     * @return the metrics of this manager
+     */
+    @NotNull
+    public CommandMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the {@link CommandHandler} instance based on the given class, a lazy handler is created if it isn't yet
      *
      * @return The {@link CommandHandler} instance based on the given class
      */
@@ -204,6 +638,9 @@ public final class CommandManager {
         for (CommandHandler handler : commandHandlers) {
             if (handler.getClass() == clazz) return handler;
         }
+        for (LazyCommandHandler handler : lazyHandlers) {
+            if (handler.getHandlerClass() == clazz) return handler.getHandler();
+        }
         return null;
     }
 
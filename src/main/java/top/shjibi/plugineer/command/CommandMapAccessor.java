@@ -0,0 +1,181 @@
+package top.shjibi.plugineer.command;
+
+import org.bukkit.Server;
+import org.bukkit.command.Command;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.command.SimpleCommandMap;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * <p>Accesses the internals of the server's command map.
+ * <br>Every member is resolved once into a cached {@link MethodHandle}, failures included. Members are looked up by their usual name first, and then by their type, for server forks that rename them.
+ * </p>
+ */
+final class CommandMapAccessor {
+
+    private CommandMapAccessor() {
+    }
+
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    private static final MethodType getterType = MethodType.methodType(Object.class, Object.class);
+
+    private static final Resolved pluginCommandConstructor = resolvePluginCommandConstructor();
+
+    private static final ClassValue<Resolved> commandMapGetters = new ClassValue<>() {
+        @Override
+        protected Resolved computeValue(@NotNull Class<?> type) {
+            return resolveGetter(type, "commandMap", "getCommandMap", SimpleCommandMap.class);
+        }
+    };
+
+    private static final ClassValue<Resolved> syncCommandsMethods = new ClassValue<>() {
+        @Override
+        protected Resolved computeValue(@NotNull Class<?> type) {
+            try {
+                Method method = type.getDeclaredMethod("syncCommands");
+                method.setAccessible(true);
+                return new Resolved(lookup.unreflect(method).asType(MethodType.methodType(void.class, Object.class)), null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return new Resolved(null, e);
+            }
+        }
+    };
+
+    private static final ClassValue<Resolved> knownCommandsGetters = new ClassValue<>() {
+        @Override
+        protected Resolved computeValue(@NotNull Class<?> type) {
+            return resolveGetter(type, "knownCommands", "getKnownCommands", Map.class);
+        }
+    };
+
+    /**
+     * Rebuilds the server's command tree from the command map, does nothing on servers without {@code syncCommands}
+     */
+    static void syncCommands(@NotNull Server server) {
+        MethodHandle handle = syncCommandsMethods.get(server.getClass()).handle;
+        if (handle == null) return;
+        try {
+            handle.invokeExact((Object) server);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException("Cannot sync commands", t);
+        }
+    }
+
+    /**
+     * Gets the command map of the server
+     */
+    @NotNull
+    static SimpleCommandMap getCommandMap(@NotNull Server server) throws ReflectiveOperationException {
+        return (SimpleCommandMap) invokeGetter(commandMapGetters.get(server.getClass()), server);
+    }
+
+    /**
+     * Gets the mutable map of all commands known to the command map
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    static Map<String, Command> getKnownCommands(@NotNull SimpleCommandMap commandMap) throws ReflectiveOperationException {
+        return (Map<String, Command>) invokeGetter(knownCommandsGetters.get(commandMap.getClass()), commandMap);
+    }
+
+    /**
+     * Creates a {@link PluginCommand} through its private constructor
+     */
+    @NotNull
+    static PluginCommand newPluginCommand(@NotNull String name, @NotNull Plugin plugin) throws ReflectiveOperationException {
+        try {
+            return (PluginCommand) pluginCommandConstructor.handle().invokeExact(name, plugin);
+        } catch (RuntimeException | Error | ReflectiveOperationException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    private static Object invokeGetter(Resolved getter, Object owner) throws ReflectiveOperationException {
+        try {
+            return (Object) getter.handle().invokeExact(owner);
+        } catch (RuntimeException | Error | ReflectiveOperationException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    private static Resolved resolvePluginCommandConstructor() {
+        try {
+            Constructor<PluginCommand> constructor = PluginCommand.class.getDeclaredConstructor(String.class, Plugin.class);
+            constructor.setAccessible(true);
+            return new Resolved(lookup.unreflectConstructor(constructor), null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return new Resolved(null, e);
+        }
+    }
+
+    // Looks for a field with the given name, then for a getter method, then for any field of the given type
+    private static Resolved resolveGetter(Class<?> owner, String fieldName, String methodName, Class<?> type) {
+        try {
+            Field field = findField(owner, fieldName, type);
+            if (field != null) {
+                field.setAccessible(true);
+                return new Resolved(lookup.unreflectGetter(field).asType(getterType), null);
+            }
+
+            for (Class<?> c = owner; c != null; c = c.getSuperclass()) {
+                try {
+                    Method method = c.getDeclaredMethod(methodName);
+                    if (!type.isAssignableFrom(method.getReturnType())) continue;
+                    method.setAccessible(true);
+                    return new Resolved(lookup.unreflect(method).asType(getterType), null);
+                } catch (NoSuchMethodException ignored) {
+                }
+            }
+
+            field = findField(owner, null, type);
+            if (field != null) {
+                field.setAccessible(true);
+                return new Resolved(lookup.unreflectGetter(field).asType(getterType), null);
+            }
+            return new Resolved(null, new NoSuchFieldException("Cannot find " + fieldName + " in " + owner.getName()));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return new Resolved(null, e);
+        }
+    }
+
+    private static Field findField(Class<?> owner, String name, Class<?> type) {
+        for (Class<?> c = owner; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if ((name == null || field.getName().equals(name)) && type.isAssignableFrom(field.getType())) return field;
+            }
+        }
+        return null;
+    }
+
+    private static final class Resolved {
+        private final MethodHandle handle;
+        private final Exception failure;
+
+        private Resolved(MethodHandle handle, Exception failure) {
+            this.handle = handle;
+            this.failure = failure;
+        }
+
+        private MethodHandle handle() throws ReflectiveOperationException {
+            if (handle != null) return handle;
+            if (failure instanceof ReflectiveOperationException) throw (ReflectiveOperationException) failure;
+            throw new ReflectiveOperationException(failure);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package top.shjibi.plugineer.command;
+
+import org.jetbrains.annotations.NotNull;
+import top.shjibi.plugineer.command.base.CommandHandler;
+import top.shjibi.plugineer.command.base.CommandMetadata;
+
+/**
+ * A command handler class together with its metadata and a factory, so it can be added to a {@link CommandManager} without reflection.
+ */
+public final class HandlerDefinition {
+
+    @NotNull
+    private final Class<? extends CommandHandler> handlerClass;
+    @NotNull
+    private final CommandMetadata metadata;
+    @NotNull
+    private final CommandHandlerFactory factory;
+
+    /**
+     * Constructs the definition of a handler
+     *
+     * @param handlerClass the handler class
+     * @param metadata     the metadata of the handler class
+     * @param factory      the factory of the handler
+     */
+    public HandlerDefinition(@NotNull Class<? extends CommandHandler> handlerClass, @NotNull CommandMetadata metadata, @NotNull CommandHandlerFactory factory) {
+        this.handlerClass = handlerClass;
+        this.metadata = metadata;
+        this.factory = factory;
+    }
+
+    /**
+     * Gets the handler class
+     */
+    @NotNull
+    public Class<? extends CommandHandler> getHandlerClass() {
+        return handlerClass;
+    }
+
+    /**
+     * Gets the metadata of the handler class
+     */
+    @NotNull
+    public CommandMetadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Gets the factory of the handler
+     */
+    @NotNull
+    public CommandHandlerFactory getFactory() {
+        return factory;
+    }
+}
@@ -0,0 +1,19 @@
+package top.shjibi.plugineer.command;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * <p>A static list of command handlers.
+ * <br>The Plugineer annotation processor generates one for every project it runs on, pass it to {@link CommandManager#addHandlers(HandlerRegistry)} to add the handlers without reflection.
+ * </p>
+ */
+public interface HandlerRegistry {
+
+    /**
+     * Gets the definitions of the handlers
+     */
+    @NotNull
+    List<HandlerDefinition> getDefinitions();
+}
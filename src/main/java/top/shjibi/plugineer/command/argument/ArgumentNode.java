@@ -0,0 +1,125 @@
+package top.shjibi.plugineer.command.argument;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <p>A node of the argument graph of a command, which is either a literal word or a typed argument.
+ * <br>Nodes only describe the graph, it's compiled into a {@link CommandTree} once the handler is added to a command manager.
+ * </p>
+ */
+public final class ArgumentNode {
+
+    @Nullable
+    private final String name;
+    @Nullable
+    private final ArgumentType<?> type;
+    @NotNull
+    private final List<ArgumentNode> children = new ArrayList<>();
+    @Nullable
+    private CommandAction action;
+
+    private ArgumentNode(@Nullable String name, @Nullable ArgumentType<?> type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     * Creates the root node of a command, which stands for the command label
+     *
+     * @return the root node
+     */
+    @NotNull
+    public static ArgumentNode root() {
+        return new ArgumentNode(null, null);
+    }
+
+    /**
+     * Creates a node that matches a word, ignoring case
+     *
+     * @param name the word to match
+     * @return the literal node
+     */
+    @NotNull
+    public static ArgumentNode literal(@NotNull String name) {
+        Preconditions.checkNotNull(name, "'name' cannot be null!");
+        return new ArgumentNode(name.toLowerCase(Locale.ENGLISH), null);
+    }
+
+    /**
+     * Creates a node that parses an argument and stores it under the given name
+     *
+     * @param name name of the parsed value in the {@link CommandContext}
+     * @param type type of the argument
+     * @return the argument node
+     */
+    @NotNull
+    public static ArgumentNode argument(@NotNull String name, @NotNull ArgumentType<?> type) {
+        Preconditions.checkNotNull(name, "'name' cannot be null!");
+        Preconditions.checkNotNull(type, "'type' cannot be null!");
+        return new ArgumentNode(name, type);
+    }
+
+    /**
+     * Adds child nodes to this node. Literal children are tried before argument children, which are tried in the order they were added
+     *
+     * @param nodes the nodes to add
+     * @return this node
+     */
+    @NotNull
+    public ArgumentNode then(@NotNull ArgumentNode... nodes) {
+        Preconditions.checkState(type == null || !type.isGreedy(), "A greedy argument cannot have children!");
+        Collections.addAll(children, nodes);
+        return this;
+    }
+
+    /**
+     * Sets the action that runs when the arguments end at this node
+     *
+     * @param action the action to run
+     * @return this node
+     */
+    @NotNull
+    public ArgumentNode executes(@NotNull CommandAction action) {
+        this.action = action;
+        return this;
+    }
+
+    /**
+     * Gets the word of a literal node or the value name of an argument node, null for the root node
+     */
+    @Nullable
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the type of this node, null for literal and root nodes
+     */
+    @Nullable
+    public ArgumentType<?> getType() {
+        return type;
+    }
+
+    /**
+     * Gets the child nodes of this node
+     */
+    @NotNull
+    public List<ArgumentNode> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    /**
+     * Gets the action that runs when the arguments end at this node
+     */
+    @Nullable
+    public CommandAction getAction() {
+        return action;
+    }
+}
@@ -0,0 +1,19 @@
+package top.shjibi.plugineer.command.argument;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Thrown when an argument of a command cannot be parsed, the message is shown to the sender.
+ * <br>It's thrown for every argument type that doesn't fit while parsing and completing, so it doesn't fill in a stack trace.
+ */
+public class ArgumentParseException extends Exception {
+
+    /**
+     * Constructs an exception with the message to show to the sender
+     *
+     * @param message the message to show to the sender
+     */
+    public ArgumentParseException(@NotNull String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,45 @@
+package top.shjibi.plugineer.command.argument;
+
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A type of command argument, see {@link ArgumentTypes} for the built-in ones.
+ *
+ * @param <T> the type of the parsed value
+ */
+public interface ArgumentType<T> {
+
+    /**
+     * Parses an argument
+     *
+     * @param sender the sender of the command
+     * @param input  the argument to parse
+     * @return the parsed value
+     * @throws ArgumentParseException if the argument is invalid
+     */
+    @NotNull
+    T parse(@NotNull CommandSender sender, @NotNull String input) throws ArgumentParseException;
+
+    /**
+     * Gets the completions of a partially typed argument
+     *
+     * @param sender the sender of the command
+     * @param prefix the partially typed argument
+     * @return the completions, which may be immutable
+     */
+    @NotNull
+    default List<String> complete(@NotNull CommandSender sender, @NotNull String prefix) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Gets whether this argument consumes every remaining argument, joined by spaces
+     */
+    default boolean isGreedy() {
+        return false;
+    }
+}
@@ -0,0 +1,217 @@
+package top.shjibi.plugineer.command.argument;
+
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import top.shjibi.plugineer.command.completion.CompletionIndex;
+import top.shjibi.plugineer.command.completion.CompletionSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The built-in {@link ArgumentType}s.
+ */
+public final class ArgumentTypes {
+
+    private ArgumentTypes() {
+    }
+
+    private static final ArgumentType<String> WORD = (sender, input) -> input;
+
+    private static final ArgumentType<String> GREEDY_STRING = new ArgumentType<>() {
+        @NotNull
+        @Override
+        public String parse(@NotNull CommandSender sender, @NotNull String input) {
+            return input;
+        }
+
+        @Override
+        public boolean isGreedy() {
+            return true;
+        }
+    };
+
+    private static final ArgumentType<Player> ONLINE_PLAYER = new ArgumentType<>() {
+        @NotNull
+        @Override
+        public Player parse(@NotNull CommandSender sender, @NotNull String input) throws ArgumentParseException {
+            Player player = Bukkit.getPlayerExact(input);
+            if (player == null) throw new ArgumentParseException("Player not found: " + input);
+            return player;
+        }
+
+        @NotNull
+        @Override
+        public List<String> complete(@NotNull CommandSender sender, @NotNull String prefix) {
+            List<String> list = new ArrayList<>();
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                String name = player.getName();
+                if (name.regionMatches(true, 0, prefix, 0, prefix.length())) list.add(name);
+            }
+            return list;
+        }
+    };
+
+    /**
+     * Gets a type that accepts any single argument
+     */
+    @NotNull
+    public static ArgumentType<String> word() {
+        return WORD;
+    }
+
+    /**
+     * Gets a type that accepts every remaining argument, joined by spaces
+     */
+    @NotNull
+    public static ArgumentType<String> greedyString() {
+        return GREEDY_STRING;
+    }
+
+    /**
+     * Gets a type that accepts the exact name of an online player
+     */
+    @NotNull
+    public static ArgumentType<Player> onlinePlayer() {
+        return ONLINE_PLAYER;
+    }
+
+    /**
+     * Gets a type that accepts any integer
+     */
+    @NotNull
+    public static ArgumentType<Integer> integer() {
+        return integer(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets a type that accepts an integer in the given range
+     *
+     * @param min the minimum value, inclusive
+     * @param max the maximum value, inclusive
+     */
+    @NotNull
+    public static ArgumentType<Integer> integer(int min, int max) {
+        return (sender, input) -> {
+            int value;
+            try {
+                value = Integer.parseInt(input);
+            } catch (NumberFormatException e) {
+                throw new ArgumentParseException("Invalid integer: " + input);
+            }
+            if (value < min || value > max) throw new ArgumentParseException("Integer must be between " + min + " and " + max + ": " + input);
+            return value;
+        };
+    }
+
+    /**
+     * Gets a type that accepts any finite number
+     */
+    @NotNull
+    public static ArgumentType<Double> decimal() {
+        return decimal(-Double.MAX_VALUE, Double.MAX_VALUE);
+    }
+
+    /**
+     * Gets a type that accepts a finite number in the given range
+     *
+     * @param min the minimum value, inclusive
+     * @param max the maximum value, inclusive
+     */
+    @NotNull
+    public static ArgumentType<Double> decimal(double min, double max) {
+        return (sender, input) -> {
+            double value;
+            try {
+                value = Double.parseDouble(input);
+            } catch (NumberFormatException e) {
+                throw new ArgumentParseException("Invalid number: " + input);
+            }
+            if (!Double.isFinite(value)) throw new ArgumentParseException("Invalid number: " + input);
+            if (value < min || value > max) throw new ArgumentParseException("Number must be between " + min + " and " + max + ": " + input);
+            return value;
+        };
+    }
+
+    /**
+     * Gets a type that accepts the name of a constant of the enum, ignoring case
+     *
+     * @param enumClass the class of the enum
+     */
+    @NotNull
+    public static <E extends Enum<E>> ArgumentType<E> enumeration(@NotNull Class<E> enumClass) {
+        E[] constants = enumClass.getEnumConstants();
+        Map<String, E> byName = new HashMap<>();
+        for (E constant : constants) {
+            byName.put(constant.name().toLowerCase(Locale.ENGLISH), constant);
+        }
+        CompletionIndex index = CompletionIndex.of(byName.keySet());
+
+        return new ArgumentType<>() {
+            @NotNull
+            @Override
+            public E parse(@NotNull CommandSender sender, @NotNull String input) throws ArgumentParseException {
+                E value = byName.get(input.toLowerCase(Locale.ENGLISH));
+                if (value == null) throw new ArgumentParseException("Invalid " + enumClass.getSimpleName() + ": " + input);
+                return value;
+            }
+
+            @NotNull
+            @Override
+            public List<String> complete(@NotNull CommandSender sender, @NotNull String prefix) {
+                return index.complete(prefix);
+            }
+        };
+    }
+
+    /**
+     * Gets a type that accepts a candidate of the source, ignoring case, and parses it to the candidate itself
+     *
+     * @param source the source of candidates
+     */
+    @NotNull
+    public static ArgumentType<String> oneOf(@NotNull CompletionSource source) {
+        return new ArgumentType<>() {
+            @NotNull
+            @Override
+            public String parse(@NotNull CommandSender sender, @NotNull String input) throws ArgumentParseException {
+                String value = source.get(input);
+                if (value == null) throw new ArgumentParseException("Unknown value: " + input);
+                return value;
+            }
+
+            @NotNull
+            @Override
+            public List<String> complete(@NotNull CommandSender sender, @NotNull String prefix) {
+                return source.complete(sender, prefix);
+            }
+        };
+    }
+
+    /**
+     * Gets a type that accepts any single argument and suggests the candidates of the source
+     *
+     * @param source the source of suggestions
+     */
+    @NotNull
+    public static ArgumentType<String> word(@NotNull CompletionSource source) {
+        return new ArgumentType<>() {
+            @NotNull
+            @Override
+            public String parse(@NotNull CommandSender sender, @NotNull String input) {
+                return input;
+            }
+
+            @NotNull
+            @Override
+            public List<String> complete(@NotNull CommandSender sender, @NotNull String prefix) {
+                return source.complete(sender, prefix);
+            }
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package top.shjibi.plugineer.command.argument;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An action that runs when the arguments of a command lead to an {@link ArgumentNode}.
+ */
+@FunctionalInterface
+public interface CommandAction {
+
+    /**
+     * Runs the action
+     *
+     * @param context the sender and the parsed arguments of the command
+     */
+    void run(@NotNull CommandContext context);
+}
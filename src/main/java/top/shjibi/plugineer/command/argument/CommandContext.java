@@ -0,0 +1,127 @@
+package top.shjibi.plugineer.command.argument;
+
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The sender and the parsed arguments of a command invocation.
+ */
+public final class CommandContext {
+
+    @NotNull
+    private final CommandSender sender;
+    @Nullable
+    private final Command command;
+    @NotNull
+    private final String label;
+    @NotNull
+    private final String[] args;
+    @NotNull
+    private final Map<String, Object> values = new HashMap<>();
+    @Nullable
+    private CommandAction action;
+
+    CommandContext(@NotNull CommandSender sender, @Nullable Command command, @NotNull String label, @NotNull String[] args) {
+        this.sender = sender;
+        this.command = command;
+        this.label = label;
+        this.args = args;
+    }
+
+    void put(String name, Object value) {
+        values.put(name, value);
+    }
+
+    void setAction(@Nullable CommandAction action) {
+        this.action = action;
+    }
+
+    /**
+     * Gets a parsed argument
+     *
+     * @param name name of the argument
+     * @return the parsed argument
+     * @throws IllegalArgumentException if the arguments didn't go through an argument with this name
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NotNull String name) {
+        Object value = values.get(name);
+        if (value == null) throw new IllegalArgumentException("No argument named '" + name + "'");
+        return (T) value;
+    }
+
+    /**
+     * Gets a parsed argument, or the default value if the arguments didn't go through an argument with this name
+     *
+     * @param name name of the argument
+     * @param def  the default value
+     * @return the parsed argument or the default value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrDefault(@NotNull String name, T def) {
+        Object value = values.get(name);
+        return value == null ? def : (T) value;
+    }
+
+    /**
+     * Gets whether the arguments went through an argument with this name
+     */
+    public boolean has(@NotNull String name) {
+        return values.containsKey(name);
+    }
+
+    /**
+     * Gets the sender of the command
+     */
+    @NotNull
+    public CommandSender getSender() {
+        return sender;
+    }
+
+    /**
+     * Gets the sender of the command as a player, only use it in player-only handlers
+     */
+    @NotNull
+    public Player getPlayer() {
+        return (Player) sender;
+    }
+
+    /**
+     * Gets the command, null for silent commands
+     */
+    @Nullable
+    public Command getCommand() {
+        return command;
+    }
+
+    /**
+     * Gets the label the command was executed with
+     */
+    @NotNull
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Gets the raw arguments of the command
+     */
+    @NotNull
+    public String[] getArgs() {
+        return args;
+    }
+
+    /**
+     * Gets the action of the node that the arguments ended at, null until the arguments are parsed
+     */
+    @Nullable
+    public CommandAction getAction() {
+        return action;
+    }
+}
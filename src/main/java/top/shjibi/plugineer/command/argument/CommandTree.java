@@ -0,0 +1,173 @@
+package top.shjibi.plugineer.command.argument;
+
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.shjibi.plugineer.command.completion.CompletionIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <p>An immutable argument graph compiled from {@link ArgumentNode}s.
+ * <br>Arguments are parsed in a single pass: at every node, the argument is first looked up among the literal children and then parsed by the argument children in order, the first match wins.
+ * The same graph completes partially typed arguments, literals are completed from a precomputed {@link CompletionIndex}.
+ * </p>
+ */
+public final class CommandTree {
+
+    @NotNull
+    private final Node root;
+
+    private CommandTree(@NotNull Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compiles an argument graph
+     *
+     * @param root the root node of the graph
+     * @return the compiled graph
+     */
+    @NotNull
+    public static CommandTree compile(@NotNull ArgumentNode root) {
+        return new CommandTree(new Node(root));
+    }
+
+    /**
+     * Parses the arguments of a command
+     *
+     * @param sender  the sender of the command
+     * @param command the command, null for silent commands
+     * @param label   the label the command was executed with
+     * @param args    the arguments of the command
+     * @return the parsed arguments, together with the action of the node that the arguments ended at
+     * @throws ArgumentParseException if the arguments don't fit the graph, or end at a node without an action
+     */
+    @NotNull
+    public CommandContext parse(@NotNull CommandSender sender, @Nullable Command command, @NotNull String label, @NotNull String[] args) throws ArgumentParseException {
+        CommandContext context = new CommandContext(sender, command, label, args);
+        Node node = root;
+        int i = 0;
+        while (i < args.length) {
+            Node next = node.literals.get(args[i].toLowerCase(Locale.ENGLISH));
+            if (next != null) {
+                node = next;
+                i++;
+                continue;
+            }
+
+            ArgumentParseException failure = null;
+            for (Node child : node.arguments) {
+                try {
+                    context.put(child.name, child.type.parse(sender, child.greedy ? join(args, i) : args[i]));
+                    next = child;
+                    break;
+                } catch (ArgumentParseException e) {
+                    if (failure == null) failure = e;
+                }
+            }
+
+            if (next == null) {
+                if (failure != null) throw failure;
+                throw new ArgumentParseException(node.isLeaf() ? "Too many arguments!" : "Unknown argument: " + args[i]);
+            }
+            node = next;
+            i = next.greedy ? args.length : i + 1;
+        }
+        if (node.action == null) throw new ArgumentParseException("Not enough arguments!");
+        context.setAction(node.action);
+        return context;
+    }
+
+    /**
+     * Completes the last argument of a command
+     *
+     * @param sender the sender of the command
+     * @param args   the arguments of the command, the last one is the one to complete
+     * @return the completions
+     */
+    @NotNull
+    public List<String> complete(@NotNull CommandSender sender, @NotNull String[] args) {
+        if (args.length == 0) return Collections.emptyList();
+        int last = args.length - 1;
+        Node node = root;
+
+        for (int i = 0; i < last; i++) {
+            Node next = node.literals.get(args[i].toLowerCase(Locale.ENGLISH));
+            if (next == null) {
+                for (Node child : node.arguments) {
+                    if (child.greedy) return child.type.complete(sender, args[last]);
+                    try {
+                        child.type.parse(sender, args[i]);
+                        next = child;
+                        break;
+                    } catch (ArgumentParseException ignored) {
+                    }
+                }
+            }
+            if (next == null) return Collections.emptyList();
+            node = next;
+        }
+
+        String prefix = args[last];
+        List<String> result = node.literalIndex.complete(prefix);
+        for (Node child : node.arguments) {
+            List<String> completions = child.type.complete(sender, prefix);
+            if (completions.isEmpty()) continue;
+            if (result.isEmpty()) {
+                result = completions;
+            } else {
+                List<String> merged = new ArrayList<>(result.size() + completions.size());
+                merged.addAll(result);
+                merged.addAll(completions);
+                result = merged;
+            }
+        }
+        return result;
+    }
+
+    private static String join(String[] args, int start) {
+        if (start == args.length - 1) return args[start];
+        return String.join(" ", Arrays.asList(args).subList(start, args.length));
+    }
+
+    private static final class Node {
+        private final String name;
+        private final ArgumentType<?> type;
+        private final boolean greedy;
+        private final Map<String, Node> literals = new HashMap<>();
+        private final CompletionIndex literalIndex;
+        private final Node[] arguments;
+        private final CommandAction action;
+
+        private Node(ArgumentNode node) {
+            name = node.getName();
+            type = node.getType();
+            greedy = type != null && type.isGreedy();
+            action = node.getAction();
+
+            List<Node> argumentList = new ArrayList<>();
+            for (ArgumentNode child : node.getChildren()) {
+                Node compiled = new Node(child);
+                if (compiled.type == null) {
+                    literals.put(compiled.name, compiled);
+                } else {
+                    argumentList.add(compiled);
+                }
+            }
+            literalIndex = CompletionIndex.of(literals.keySet());
+            arguments = argumentList.toArray(new Node[0]);
+        }
+
+        private boolean isLeaf() {
+            return literals.isEmpty() && arguments.length == 0;
+        }
+    }
+}
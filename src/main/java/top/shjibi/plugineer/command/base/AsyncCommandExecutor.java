@@ -0,0 +1,69 @@
+package top.shjibi.plugineer.command.base;
+
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+import top.shjibi.plugineer.command.CommandManager;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor that runs the asynchronous command handlers of a plugin, owned by its {@link CommandManager}.
+ * <br>When the server runs on Java 21 or newer, every command gets its own virtual thread, otherwise a cached pool of daemon threads is used.
+ * <br>It's shut down along with the manager, when the plugin is disabled.
+ */
+public final class AsyncCommandExecutor {
+
+    @NotNull
+    private final ExecutorService executor;
+
+    /**
+     * Constructs the executor of a plugin
+     *
+     * @param plugin the plugin, its name is used to name the threads
+     */
+    public AsyncCommandExecutor(@NotNull JavaPlugin plugin) {
+        this.executor = createExecutor(plugin.getName());
+    }
+
+    /**
+     * Runs the task off the main thread
+     *
+     * @param task the task to run
+     * @throws java.util.concurrent.RejectedExecutionException if the executor is shut down
+     */
+    public void execute(@NotNull Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Stops accepting commands, the ones already running are left to finish
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Gets whether the executor is shut down
+     */
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    private static ExecutorService createExecutor(String name) {
+        try {
+            // Looked up reflectively so the library keeps targeting Java 17
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            ThreadFactory factory = task -> {
+                Thread thread = new Thread(task, name + " Command Thread #" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newCachedThreadPool(factory);
+        }
+    }
+}
@@ -1,19 +1,35 @@
 package top.shjibi.plugineer.command.base;
 
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
+import org.bukkit.command.CommandException;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.PluginCommand;
 import org.bukkit.command.TabExecutor;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import top.shjibi.plugineer.command.CommandManager;
+import top.shjibi.plugineer.command.argument.ArgumentNode;
+import top.shjibi.plugineer.command.argument.ArgumentParseException;
+import top.shjibi.plugineer.command.argument.CommandAction;
+import top.shjibi.plugineer.command.argument.CommandContext;
+import top.shjibi.plugineer.command.argument.CommandTree;
 import top.shjibi.plugineer.command.base.annotations.CommandInfo;
+import top.shjibi.plugineer.command.metrics.CommandMetrics;
+import top.shjibi.plugineer.command.metrics.CommandStats;
+import top.shjibi.plugineer.util.MessageTemplate;
 
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
-import java.util.Objects;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 /**
@@ -26,17 +42,52 @@ public abstract class CommandHandler implements TabExecutor {
     @NotNull
     protected final String[] names;
     protected final int minArgs;
+    protected final boolean async;
+    @Nullable
+    CommandManager manager;
+    @Nullable
+    private CommandTree tree;
+    // The statistics of every name, in the same order
+    @Nullable
+    private CommandStats[] stats;
+    @Nullable
+    private final RateLimiter rateLimiter;
+    private final boolean globalCooldown;
+    @NotNull
+    private final MessageTemplate cooldownMsg;
+    @NotNull
+    private final Map<String, MessageTemplate> usageTemplates = new ConcurrentHashMap<>();
 
     /**
      * Constructs a command handler for executing commands and completing tabs
      */
     public CommandHandler() {
-        CommandInfo[] infoArray = getClass().getAnnotationsByType(CommandInfo.class);
-        if (infoArray.length == 0) throw new RuntimeException("CommandInfo is not found!");
-        CommandInfo info = infoArray[0];
+        CommandMetadata metadata = CommandMetadata.of(getClass());
+        this.names = metadata.getNames();
+        this.minArgs = metadata.getMinArgs();
+        this.async = metadata.isAsync();
+        this.rateLimiter = metadata.getCooldown() > 0 ? new RateLimiter(metadata.getCooldown(), metadata.getBurst()) : null;
+        this.globalCooldown = metadata.isGlobalCooldown();
+        this.cooldownMsg = MessageTemplate.compile(metadata.getCooldownMsg(), "seconds");
+    }
+
+    /**
+     * Declares the argument graph of the command, override it to let the handler parse, validate and complete the arguments.
+     * <br>When the arguments end at a node without an action, the sender is told that arguments are missing and shown the usage, {@link #execute} isn't called.
+     *
+     * @return the root node of the graph, or null if this handler handles raw arguments itself
+     */
+    @Nullable
+    protected ArgumentNode arguments() {
+        return null;
+    }
 
-        this.names = Arrays.stream(info.name()).map(s -> s.toLowerCase(Locale.ENGLISH)).toArray(String[]::new);
-        this.minArgs = info.minArgs();
+    /**
+     * Compiles the argument graph declared by {@link #arguments()}, this is done once when the handler is added to a {@link CommandManager}.
+     */
+    public final void compileArguments() {
+        ArgumentNode root = arguments();
+        tree = root == null ? null : CommandTree.compile(root);
     }
 
     /**
@@ -45,23 +96,47 @@ public abstract class CommandHandler implements TabExecutor {
      * @param manager the manager that works with this command handler
      */
     public void bind(@NotNull CommandManager manager) {
-        JavaPlugin plugin = manager.getPlugin();
+        this.manager = manager;
+        bindCommands(manager.getPlugin(), getClass(), names, this);
+    }
+
+    /**
+     * Unbinds this handler from its commands, commands that have been bound to another handler since are left alone.
+     */
+    public void unbind() {
+        if (manager == null) return;
+        unbindCommands(manager.getPlugin(), names, this);
+    }
+
+    // Shared with the lazy handlers, which bind themselves before their handler exists
+    static void bindCommands(@NotNull JavaPlugin plugin, @NotNull Class<? extends CommandHandler> handlerClass, @NotNull String[] names, @NotNull TabExecutor executor) {
         for (String name : names) {
-            PluginCommand command = Objects.requireNonNull(plugin.getCommand(name));
-            command.setExecutor(this);
-            command.setTabCompleter(this);
+            PluginCommand command = plugin.getCommand(name);
+            if (command == null) {
+                throw new IllegalStateException("Cannot bind " + handlerClass.getName() + ": command '" + name + "' is not registered, declare it in plugin.yml or with @RegisterCommand");
+            }
+            command.setExecutor(executor);
+            command.setTabCompleter(executor);
+        }
+    }
+
+    static void unbindCommands(@NotNull JavaPlugin plugin, @NotNull String[] names, @NotNull TabExecutor executor) {
+        for (String name : names) {
+            PluginCommand command = plugin.getCommand(name);
+            if (command == null || command.getExecutor() != executor) continue;
+            command.setExecutor(null);
+            command.setTabCompleter(null);
         }
     }
 
     /**
-     * Sends the correct usage of the command
+     * Sends the correct usage of the command, every usage message is compiled into a {@link MessageTemplate} once.
+     * <br>Like Bukkit does, the usage is split into lines but not colored, so an {@code &} in it is sent as it is.
      */
     protected final void sendUsage(@NotNull Command command, @NotNull CommandSender sender, @NotNull String commandLabel) {
         String usageMessage = command.getUsage();
         if (!usageMessage.isEmpty()) {
-            for (String line : usageMessage.replace("<command>", commandLabel).split("\n")) {
-                sender.sendMessage(line);
-            }
+            usageTemplates.computeIfAbsent(usageMessage, usage -> MessageTemplate.compileRaw(usage.split("\n"), "command")).send(sender, commandLabel);
         }
     }
 
@@ -71,13 +146,159 @@ public abstract class CommandHandler implements TabExecutor {
             sendUsage(command, sender, label);
             return true;
         }
-        execute(sender, command, label, args);
+        dispatch(sender, command, label, args);
+        return true;
+    }
+
+    /**
+     * Runs the command without checking the argument count.
+     * <br>The sender and the arguments are checked first, then the cooldown of the command, so that only a command that will run uses it up. A sender on cooldown is told how long to wait.
+     * <br>If this handler is asynchronous, these checks are made on the current thread and the command runs on the {@link AsyncCommandExecutor} of the manager, otherwise it runs right away.
+     * An asynchronous command that fails is logged through the logger of the plugin.
+     * <br>The latency and the errors of the command are recorded to the {@link CommandManager#getMetrics() metrics} of the manager under the name of the command, asynchronous commands are timed from when they start running.
+     */
+    public final void dispatch(@NotNull CommandSender sender, @Nullable Command command, @NotNull String label, @NotNull String[] args) {
+        long start = System.nanoTime();
+        Runnable task = () -> execute(sender, command, label, args);
+        if (tree != null) {
+            if (!checkSender(sender)) return;
+            CommandContext context;
+            try {
+                context = tree.parse(sender, command, label, args);
+            } catch (ArgumentParseException e) {
+                sender.sendMessage(ChatColor.RED + e.getMessage());
+                if (command != null) sendUsage(command, sender, label);
+                return;
+            }
+            CommandAction action = context.getAction();
+            task = () -> action.run(context);
+        } else if (!checkSender(sender)) {
+            return;
+        }
+        if (!checkCooldown(sender)) return;
+
+        // Silent commands have no command, their label is one of the names
+        CommandStats stats = getStats(command != null ? command.getName() : label);
+        if (!async) {
+            runTimed(task, start, stats);
+            return;
+        }
+
+        Runnable asyncTask = task;
+        getManager().getAsyncExecutor().execute(() -> {
+            try {
+                runTimed(asyncTask, System.nanoTime(), stats);
+            } catch (Throwable ex) {
+                runSync(() -> {
+                    CommandException exception = handleException(sender, label, ex);
+                    getManager().getPlugin().getLogger().log(Level.SEVERE, exception.getMessage(), ex);
+                });
+            }
+        });
+    }
+
+    private void runTimed(Runnable task, long start, CommandStats stats) {
+        try {
+            task.run();
+        } catch (Throwable ex) {
+            stats.recordError();
+            throw ex;
+        } finally {
+            stats.recordExecution(System.nanoTime() - start);
+        }
+    }
+
+    private boolean checkCooldown(CommandSender sender) {
+        if (rateLimiter == null) return true;
+        long wait;
+        if (globalCooldown) {
+            wait = rateLimiter.tryAcquire();
+        } else if (sender instanceof Player) {
+            wait = rateLimiter.tryAcquire(((Player) sender).getUniqueId());
+        } else {
+            return true;
+        }
+        if (wait == 0) return true;
+
+        cooldownMsg.send(sender, (wait + 999) / 1000);
+        return false;
+    }
+
+    /**
+     * Tells the sender that the command failed and wraps the exception.
+     *
+     * @param sender the sender of the command
+     * @param label  the label of the command
+     * @param ex     the exception thrown by the command
+     * @return the exception to throw
+     */
+    @NotNull
+    public CommandException handleException(@NotNull CommandSender sender, @NotNull String label, @NotNull Throwable ex) {
+        sender.sendMessage(ChatColor.RED + "An internal error occurred while attempting to perform this command");
+        return new CommandException("Unhandled exception executing command '" + label + "' in plugin " + getManager().getPlugin().getDescription().getFullName(), ex);
+    }
+
+    /**
+     * Runs the task on the main thread, right away if this is the main thread
+     *
+     * @param task the task to run
+     */
+    protected final void runSync(@NotNull Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(getManager().getPlugin(), task);
+        }
+    }
+
+    /**
+     * Computes a result on the main thread, usually to hand the result of an asynchronous command back to the server
+     *
+     * @param supplier the supplier of the result
+     * @return a future that completes with the result once the main thread has computed it
+     */
+    @NotNull
+    protected final <T> CompletableFuture<T> callSync(@NotNull Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        runSync(() -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Checks whether the sender can run this command, and tells the sender if it can't
+     *
+     * @param sender the sender of the command
+     * @return whether the sender can run this command
+     */
+    protected boolean checkSender(@NotNull CommandSender sender) {
+        return isValidSender(sender);
+    }
+
+    /**
+     * Checks whether the sender can run this command
+     *
+     * @param sender the sender of the command
+     * @return whether the sender can run this command
+     */
+    protected boolean isValidSender(@NotNull CommandSender sender) {
         return true;
     }
 
     @Override
     public final List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, String[] args) {
-        return completeTab(sender, command, label, args);
+        long start = System.nanoTime();
+        try {
+            if (tree != null) return isValidSender(sender) ? tree.complete(sender, args) : Collections.emptyList();
+            return completeTab(sender, command, label, args);
+        } finally {
+            getStats(command.getName()).recordCompletion(System.nanoTime() - start);
+        }
     }
 
     /**
@@ -108,12 +329,73 @@ public abstract class CommandHandler implements TabExecutor {
         return minArgs;
     }
 
+    /**
+     * Gets whether this handler runs its commands off the main thread.
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Gets the rate limiter of the command, null if the command has no cooldown.
+     */
+    @Nullable
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Gets the manager that this handler is bound to.
+     *
+     * @throws IllegalStateException if this handler isn't bound yet
+     */
+    @NotNull
+    public CommandManager getManager() {
+        if (manager == null) throw new IllegalStateException("Command handler is not bound yet!");
+        return manager;
+    }
+
+    /**
+     * Gets the live statistics of the first command of this handler.
+     *
+     * @throws IllegalStateException if this handler isn't bound yet
+     */
+    @NotNull
+    public CommandStats getStats() {
+        return getStats(names[0]);
+    }
+
+    /**
+     * Gets the live statistics of a command of this handler, every command is recorded under its own name.
+     *
+     * @param name name of the command, ignoring case
+     * @throws IllegalStateException if this handler isn't bound yet
+     */
+    @NotNull
+    public CommandStats getStats(@NotNull String name) {
+        CommandStats[] stats = this.stats;
+        if (stats == null) {
+            CommandMetrics metrics = getManager().getMetrics();
+            stats = new CommandStats[names.length];
+            for (int i = 0; i < names.length; i++) {
+                stats[i] = metrics.get(names[i]);
+            }
+            this.stats = stats;
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equalsIgnoreCase(name)) return stats[i];
+        }
+        return getManager().getMetrics().get(name.toLowerCase(Locale.ENGLISH));
+    }
+
     /**
      * @param command the given command
      * @return whether the given command applies to this handler
      */
     public boolean isCommandApplicable(@NotNull String command) {
-        return Arrays.stream(names).
-                anyMatch(name -> name.equals(command.toLowerCase(Locale.ENGLISH)));
+        for (String name : names) {
+            if (name.equalsIgnoreCase(command)) return true;
+        }
+        return false;
     }
 }
@@ -0,0 +1,198 @@
+package top.shjibi.plugineer.command.base;
+
+import org.jetbrains.annotations.NotNull;
+import top.shjibi.plugineer.command.base.annotations.CommandInfo;
+import top.shjibi.plugineer.command.base.annotations.RegisterCommand;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>The information of a command handler, read from {@link CommandInfo} and {@link RegisterCommand}.
+ * <br>The metadata of every handler class is read at most once. When the handlers come from a registry generated by the Plugineer annotation processor, the metadata is provided up front and annotations are never read.
+ * </p>
+ */
+public final class CommandMetadata {
+
+    private static final Map<Class<?>, CommandMetadata> cache = new ConcurrentHashMap<>();
+
+    @NotNull
+    private final String[] names;
+    private final boolean silent;
+    private final int minArgs;
+    private final boolean async;
+    @NotNull
+    private final String[] playerOnlyMsg;
+    @NotNull
+    private final String[] consoleOnlyMsg;
+    @NotNull
+    private final CommandRegistration[] registrations;
+    private final long cooldown;
+    private final int burst;
+    private final boolean globalCooldown;
+    @NotNull
+    private final String[] cooldownMsg;
+
+    /**
+     * Constructs the metadata of a command handler, see {@link CommandInfo} for the meaning of each value
+     *
+     * @param names          Names of the commands, lower-cased here
+     * @param silent         Whether the commands are silent
+     * @param minArgs        Minimum argument count for the commands to run
+     * @param async          Whether the commands run off the main thread
+     * @param playerOnlyMsg  Message to send when a non player executed a player-only command
+     * @param consoleOnlyMsg Message to send when a non console executed a console-only command
+     * @param registrations  Commands to register to the server
+     */
+    public CommandMetadata(@NotNull String[] names, boolean silent, int minArgs, boolean async, @NotNull String[] playerOnlyMsg, @NotNull String[] consoleOnlyMsg, @NotNull CommandRegistration[] registrations) {
+        this(names, silent, minArgs, async, playerOnlyMsg, consoleOnlyMsg, registrations, 0, 1, false, new String[0]);
+    }
+
+    /**
+     * Constructs the metadata of a rate limited command handler, see {@link CommandInfo} for the meaning of each value
+     *
+     * @param names          Names of the commands, lower-cased here
+     * @param silent         Whether the commands are silent
+     * @param minArgs        Minimum argument count for the commands to run
+     * @param async          Whether the commands run off the main thread
+     * @param playerOnlyMsg  Message to send when a non player executed a player-only command
+     * @param consoleOnlyMsg Message to send when a non console executed a console-only command
+     * @param registrations  Commands to register to the server
+     * @param cooldown       Milliseconds to wait between two uses of the commands, 0 for no limit
+     * @param burst          How many uses can be made in a row
+     * @param globalCooldown Whether the cooldown is shared by every sender
+     * @param cooldownMsg    Message to send when the commands are on cooldown
+     */
+    public CommandMetadata(@NotNull String[] names, boolean silent, int minArgs, boolean async, @NotNull String[] playerOnlyMsg, @NotNull String[] consoleOnlyMsg, @NotNull CommandRegistration[] registrations,
+                           long cooldown, int burst, boolean globalCooldown, @NotNull String[] cooldownMsg) {
+        this.names = Arrays.stream(names).map(s -> s.toLowerCase(Locale.ENGLISH)).toArray(String[]::new);
+        this.silent = silent;
+        this.minArgs = minArgs;
+        this.async = async;
+        this.playerOnlyMsg = playerOnlyMsg;
+        this.consoleOnlyMsg = consoleOnlyMsg;
+        this.registrations = registrations;
+        this.cooldown = cooldown;
+        this.burst = burst;
+        this.globalCooldown = globalCooldown;
+        this.cooldownMsg = cooldownMsg;
+    }
+
+    /**
+     * Gets the metadata of a handler class, reading its annotations if the metadata isn't known yet
+     *
+     * @param handlerClass the handler class
+     * @return the metadata of the handler class
+     * @throws RuntimeException if the class isn't annotated with {@link CommandInfo}
+     */
+    @NotNull
+    public static CommandMetadata of(@NotNull Class<? extends CommandHandler> handlerClass) {
+        return cache.computeIfAbsent(handlerClass, CommandMetadata::read);
+    }
+
+    /**
+     * Provides the metadata of a handler class, so that its annotations are never read
+     *
+     * @param handlerClass the handler class
+     * @param metadata     the metadata of the handler class
+     */
+    public static void register(@NotNull Class<? extends CommandHandler> handlerClass, @NotNull CommandMetadata metadata) {
+        cache.putIfAbsent(handlerClass, metadata);
+    }
+
+    private static CommandMetadata read(Class<?> handlerClass) {
+        CommandInfo[] infoArray = handlerClass.getAnnotationsByType(CommandInfo.class);
+        if (infoArray.length == 0) throw new RuntimeException("CommandInfo is not found!");
+        CommandInfo info = infoArray[0];
+
+        CommandRegistration[] registrations = Arrays.stream(handlerClass.getAnnotationsByType(RegisterCommand.class))
+                .map(CommandRegistration::of)
+                .toArray(CommandRegistration[]::new);
+        return new CommandMetadata(info.name(), info.silent(), info.minArgs(), info.async(), info.playerOnlyMsg(), info.consoleOnlyMsg(), registrations,
+                info.cooldown(), info.burst(), info.globalCooldown(), info.cooldownMsg());
+    }
+
+    /**
+     * Gets the lower-cased names of the commands
+     */
+    @NotNull
+    public String[] getNames() {
+        return names;
+    }
+
+    /**
+     * Gets whether the commands are silent
+     */
+    public boolean isSilent() {
+        return silent;
+    }
+
+    /**
+     * Gets the minimum argument count for the commands to run
+     */
+    public int getMinArgs() {
+        return minArgs;
+    }
+
+    /**
+     * Gets whether the commands run off the main thread
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Gets the message to send when a non player executed a player-only command
+     */
+    @NotNull
+    public String[] getPlayerOnlyMsg() {
+        return playerOnlyMsg;
+    }
+
+    /**
+     * Gets the message to send when a non console executed a console-only command
+     */
+    @NotNull
+    public String[] getConsoleOnlyMsg() {
+        return consoleOnlyMsg;
+    }
+
+    /**
+     * Gets the commands to register to the server
+     */
+    @NotNull
+    public CommandRegistration[] getRegistrations() {
+        return registrations;
+    }
+
+    /**
+     * Gets the milliseconds to wait between two uses of the commands, 0 for no limit
+     */
+    public long getCooldown() {
+        return cooldown;
+    }
+
+    /**
+     * Gets how many uses of the commands can be made in a row
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * Gets whether the cooldown is shared by every sender
+     */
+    public boolean isGlobalCooldown() {
+        return globalCooldown;
+    }
+
+    /**
+     * Gets the message to send when the commands are on cooldown
+     */
+    @NotNull
+    public String[] getCooldownMsg() {
+        return cooldownMsg;
+    }
+}
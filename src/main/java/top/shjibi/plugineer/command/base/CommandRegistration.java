@@ -0,0 +1,103 @@
+package top.shjibi.plugineer.command.base;
+
+import org.jetbrains.annotations.NotNull;
+import top.shjibi.plugineer.command.base.annotations.RegisterCommand;
+
+import java.util.Arrays;
+
+/**
+ * The information of a command to register to the server, read from {@link RegisterCommand}.
+ */
+public final class CommandRegistration {
+
+    @NotNull
+    private final String name;
+    @NotNull
+    private final String description;
+    @NotNull
+    private final String usageMessage;
+    @NotNull
+    private final String[] aliases;
+    private final boolean force;
+
+    /**
+     * Constructs the information of a command to register
+     *
+     * @param name         Name of the command
+     * @param description  Description of the command
+     * @param usageMessage Usage message of the command
+     * @param aliases      Aliases of the command
+     * @param force        If a command with the same name is already registered, whether to replace the old one with this
+     */
+    public CommandRegistration(@NotNull String name, @NotNull String description, @NotNull String usageMessage, @NotNull String[] aliases, boolean force) {
+        this.name = name;
+        this.description = description;
+        this.usageMessage = usageMessage;
+        this.aliases = aliases;
+        this.force = force;
+    }
+
+    /**
+     * Reads the information of a command to register from the annotation
+     *
+     * @param info the annotation
+     * @return the information of the command
+     */
+    @NotNull
+    public static CommandRegistration of(@NotNull RegisterCommand info) {
+        return new CommandRegistration(info.name(), info.description(), info.usageMessage(), info.aliases(), info.force());
+    }
+
+    /**
+     * Gets the name of the command
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the description of the command
+     */
+    @NotNull
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Gets the usage message of the command
+     */
+    @NotNull
+    public String getUsageMessage() {
+        return usageMessage;
+    }
+
+    /**
+     * Gets the aliases of the command
+     */
+    @NotNull
+    public String[] getAliases() {
+        return aliases;
+    }
+
+    /**
+     * Gets whether to replace a registered command with the same name
+     */
+    public boolean isForce() {
+        return force;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CommandRegistration)) return false;
+        CommandRegistration registration = (CommandRegistration) o;
+        return force == registration.force && name.equals(registration.name) && description.equals(registration.description)
+                && usageMessage.equals(registration.usageMessage) && Arrays.equals(aliases, registration.aliases);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + Arrays.hashCode(aliases);
+    }
+}
@@ -4,7 +4,7 @@ import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.ConsoleCommandSender;
 import org.jetbrains.annotations.NotNull;
-import top.shjibi.plugineer.command.base.annotations.CommandInfo;
+import top.shjibi.plugineer.util.MessageTemplate;
 
 import java.util.Collections;
 import java.util.List;
@@ -16,13 +16,15 @@ public abstract class ConsoleCommandHandler extends CommandHandler {
 
     protected final String[] consoleOnlyMsg;
 
+    private final MessageTemplate consoleOnlyMsgTemplate;
+
     /**
      * Constructs a player command handler for executing commands and completing tabs
      */
     public ConsoleCommandHandler() {
         super();
-        CommandInfo info = getClass().getAnnotationsByType(CommandInfo.class)[0];
-        this.consoleOnlyMsg = info.consoleOnlyMsg();
+        this.consoleOnlyMsg = CommandMetadata.of(getClass()).getConsoleOnlyMsg();
+        this.consoleOnlyMsgTemplate = MessageTemplate.compile(consoleOnlyMsg);
     }
 
     @Override
@@ -33,13 +35,24 @@ public abstract class ConsoleCommandHandler extends CommandHandler {
 
     @Override
     public final void execute(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String[] args) {
-        if (!(sender instanceof ConsoleCommandSender)) {
-            sender.sendMessage(consoleOnlyMsg);
-            return;
-        }
+        if (!checkSender(sender)) return;
         execute((ConsoleCommandSender) sender, command, label, args);
     }
 
+    @Override
+    protected boolean checkSender(@NotNull CommandSender sender) {
+        if (!isValidSender(sender)) {
+            consoleOnlyMsgTemplate.send(sender);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    protected boolean isValidSender(@NotNull CommandSender sender) {
+        return sender instanceof ConsoleCommandSender;
+    }
+
     public List<String> completeTab(@NotNull ConsoleCommandSender consoleSender, @NotNull Command command, @NotNull String label, @NotNull String[] args) {
         return null;
     }
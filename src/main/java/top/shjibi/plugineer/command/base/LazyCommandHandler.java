@@ -0,0 +1,206 @@
+package top.shjibi.plugineer.command.base;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabExecutor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.shjibi.plugineer.command.CommandHandlerFactory;
+import top.shjibi.plugineer.command.CommandManager;
+import top.shjibi.plugineer.command.base.listener.SilentEntry;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Stands in for a command handler that is created the first time one of its commands is run or completed.
+ * <br>The commands are bound to this right away, using only the metadata of the handler class, so the constructor of a handler that is never used never runs.
+ * <br>The handler is created once even if several threads need it at the same time, then it takes over its commands and this only forwards the calls that were already on their way.
+ * </p>
+ */
+public final class LazyCommandHandler implements TabExecutor, SilentEntry {
+
+    @NotNull
+    private final Class<? extends CommandHandler> handlerClass;
+    @NotNull
+    private final CommandMetadata metadata;
+    @NotNull
+    private final CommandHandlerFactory factory;
+    private final boolean silent;
+    @Nullable
+    private volatile CommandManager manager;
+    @Nullable
+    private volatile CommandHandler handler;
+    private volatile long creationTime = -1;
+    private boolean unbound;
+
+    /**
+     * Constructs the stand-in of a handler
+     *
+     * @param handlerClass the handler class
+     * @param metadata     the metadata of the handler class
+     * @param factory      the factory of the handler
+     */
+    public LazyCommandHandler(@NotNull Class<? extends CommandHandler> handlerClass, @NotNull CommandMetadata metadata, @NotNull CommandHandlerFactory factory) {
+        Preconditions.checkNotNull(handlerClass, "'handlerClass' cannot be null!");
+        Preconditions.checkNotNull(metadata, "'metadata' cannot be null!");
+        Preconditions.checkNotNull(factory, "'factory' cannot be null!");
+        this.handlerClass = handlerClass;
+        this.metadata = metadata;
+        this.factory = factory;
+        this.silent = metadata.isSilent() && PlayerCommandHandler.class.isAssignableFrom(handlerClass);
+    }
+
+    /**
+     * Binds the commands of the handler to this, or adds this to the silent handlers if the handler is silent.
+     *
+     * @param manager the manager that works with the handler
+     */
+    public void bind(@NotNull CommandManager manager) {
+        this.manager = manager;
+        if (silent) {
+            manager.getSilentCommandListener().addSilentHandler(this);
+            return;
+        }
+        CommandHandler.bindCommands(manager.getPlugin(), handlerClass, getNames(), this);
+    }
+
+    /**
+     * Unbinds this and the handler, if it's created, from their commands.
+     * <br>A call that was already on its way still creates the handler, but it won't take over any command.
+     */
+    public void unbind() {
+        synchronized (this) {
+            unbound = true;
+        }
+        CommandManager manager = this.manager;
+        if (manager == null) return;
+        CommandHandler handler = this.handler;
+        if (handler != null) handler.unbind();
+        if (silent) {
+            manager.getSilentCommandListener().removeSilentHandlers(Collections.singleton(this));
+            return;
+        }
+        CommandHandler.unbindCommands(manager.getPlugin(), getNames(), this);
+    }
+
+    /**
+     * Gets the handler, creating and binding it if this is the first time.
+     *
+     * @return the handler
+     * @throws IllegalStateException if this isn't bound yet
+     */
+    @NotNull
+    public CommandHandler getHandler() {
+        CommandHandler handler = this.handler;
+        if (handler != null) return handler;
+        synchronized (this) {
+            handler = this.handler;
+            if (handler == null) this.handler = handler = create();
+            return handler;
+        }
+    }
+
+    // Called while holding the lock
+    private CommandHandler create() {
+        CommandManager manager = this.manager;
+        if (manager == null) throw new IllegalStateException("Command handler is not bound yet!");
+        long start = System.nanoTime();
+        CommandHandler handler = factory.create(manager.getPlugin());
+        handler.compileArguments();
+        handler.manager = manager;
+        if (!unbound) {
+            if (silent) {
+                manager.getSilentCommandListener().replaceSilentHandler(this, (PlayerCommandHandler) handler);
+            } else {
+                handler.bind(manager);
+            }
+        }
+        creationTime = System.nanoTime() - start;
+        return handler;
+    }
+
+    /**
+     * Gets the handler, creating it if this is the first time.
+     *
+     * @throws IllegalStateException if the handler isn't a silent one
+     */
+    @NotNull
+    @Override
+    public PlayerCommandHandler getSilentHandler() {
+        if (!silent) throw new IllegalStateException(handlerClass.getName() + " is not a silent command handler");
+        return (PlayerCommandHandler) getHandler();
+    }
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String[] args) {
+        return getHandler().onCommand(sender, command, label, args);
+    }
+
+    @Override
+    public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String[] args) {
+        return getHandler().onTabComplete(sender, command, label, args);
+    }
+
+    /**
+     * Gets whether the handler has been created
+     */
+    public boolean isCreated() {
+        return handler != null;
+    }
+
+    /**
+     * Gets how long it took to create, compile and bind the handler, in nanoseconds
+     *
+     * @return the time, or -1 if the handler isn't created yet
+     */
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    /**
+     * Gets the handler class
+     */
+    @NotNull
+    public Class<? extends CommandHandler> getHandlerClass() {
+        return handlerClass;
+    }
+
+    /**
+     * Gets the metadata of the handler class
+     */
+    @NotNull
+    public CommandMetadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Gets the lower-cased names of commands associated with the handler
+     */
+    @NotNull
+    @Override
+    public String[] getNames() {
+        return metadata.getNames();
+    }
+
+    /**
+     * Gets whether the handler is a silent one, see {@link PlayerCommandHandler}
+     */
+    public boolean isSilent() {
+        return silent;
+    }
+
+    /**
+     * Gets the manager that this is bound to.
+     *
+     * @throws IllegalStateException if this isn't bound yet
+     */
+    @NotNull
+    @Override
+    public CommandManager getManager() {
+        CommandManager manager = this.manager;
+        if (manager == null) throw new IllegalStateException("Command handler is not bound yet!");
+        return manager;
+    }
+}
@@ -6,7 +6,8 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import top.shjibi.plugineer.command.CommandManager;
-import top.shjibi.plugineer.command.base.annotations.CommandInfo;
+import top.shjibi.plugineer.command.base.listener.SilentEntry;
+import top.shjibi.plugineer.util.MessageTemplate;
 
 import java.util.Collections;
 import java.util.List;
@@ -14,20 +15,23 @@ import java.util.List;
 /**
  * A command handler for player-only commands
  */
-public abstract class PlayerCommandHandler extends CommandHandler {
+public abstract class PlayerCommandHandler extends CommandHandler implements SilentEntry {
 
     protected final boolean silent;
 
     protected final String[] playerOnlyMsg;
 
+    private final MessageTemplate playerOnlyMsgTemplate;
+
     /**
      * Constructs a player command handler for executing commands and completing tabs
      */
     public PlayerCommandHandler() {
         super();
-        CommandInfo info = getClass().getAnnotationsByType(CommandInfo.class)[0];
-        this.silent = info.silent();
-        this.playerOnlyMsg = info.playerOnlyMsg();
+        CommandMetadata metadata = CommandMetadata.of(getClass());
+        this.silent = metadata.isSilent();
+        this.playerOnlyMsg = metadata.getPlayerOnlyMsg();
+        this.playerOnlyMsgTemplate = MessageTemplate.compile(playerOnlyMsg);
     }
 
     @Override
@@ -38,13 +42,24 @@ public abstract class PlayerCommandHandler extends CommandHandler {
 
     @Override
     public final void execute(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String[] args) {
-        if (!(sender instanceof Player)) {
-            sender.sendMessage(playerOnlyMsg);
-            return;
-        }
+        if (!checkSender(sender)) return;
         execute((Player) sender, command, label, args);
     }
 
+    @Override
+    protected boolean checkSender(@NotNull CommandSender sender) {
+        if (!isValidSender(sender)) {
+            playerOnlyMsgTemplate.send(sender);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    protected boolean isValidSender(@NotNull CommandSender sender) {
+        return sender instanceof Player;
+    }
+
     public List<String> completeTab(@NotNull Player p, @Nullable Command command, @NotNull String label, @NotNull String[] args) {
         return null;
     }
@@ -54,12 +69,31 @@ public abstract class PlayerCommandHandler extends CommandHandler {
     @Override
     public void bind(@NotNull CommandManager manager) {
         if (silent) {
+            this.manager = manager;
             manager.getSilentCommandListener().addSilentHandler(this);
         } else {
             super.bind(manager);
         }
     }
 
+    @Override
+    public void unbind() {
+        if (silent) {
+            if (manager != null) manager.getSilentCommandListener().removeSilentHandlers(Collections.singleton(this));
+        } else {
+            super.unbind();
+        }
+    }
+
+    /**
+     * Gets this handler, which is its own silent handler
+     */
+    @NotNull
+    @Override
+    public PlayerCommandHandler getSilentHandler() {
+        return this;
+    }
+
     /**
      * Gets the player-only message.
      */
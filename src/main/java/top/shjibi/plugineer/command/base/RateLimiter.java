@@ -0,0 +1,177 @@
+package top.shjibi.plugineer.command.base;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>A lock-free token bucket, either global or per player.
+ * <br>One use is given back every cooldown, and up to {@code burst} uses can be made in a row. Every bucket is a single {@code long}: the time at which it will be full again.
+ * <br>Per player buckets live in an open-addressed table of primitive longs. A bucket that is full again is expired, expired buckets are dropped whenever the table fills up, so the table only grows with the players that are actually limited.
+ * </p>
+ */
+public final class RateLimiter {
+
+    private static final int MIN_CAPACITY = 64;
+    // The time of a bucket that was copied into a newer table, it's never used again
+    private static final long RETIRED = -1;
+
+    private final long interval;
+    private final long tolerance;
+    private final long origin = System.nanoTime();
+    private final AtomicLong global = new AtomicLong();
+    private volatile Table table = new Table(MIN_CAPACITY);
+
+    /**
+     * Constructs a rate limiter
+     *
+     * @param cooldown how many milliseconds it takes to give back one use
+     * @param burst    how many uses can be made in a row
+     */
+    public RateLimiter(long cooldown, int burst) {
+        Preconditions.checkArgument(cooldown > 0, "'cooldown' must be positive!");
+        Preconditions.checkArgument(burst > 0, "'burst' must be positive!");
+        this.interval = cooldown;
+        this.tolerance = Math.multiplyExact(cooldown, burst - 1L);
+    }
+
+    /**
+     * Tries to use the global bucket
+     *
+     * @return 0 if the use is allowed, otherwise how many milliseconds to wait before the next use
+     */
+    public long tryAcquire() {
+        long now = now();
+        while (true) {
+            long tat = global.get();
+            long wait = waitTime(tat, now);
+            if (wait > 0) return wait;
+            if (global.compareAndSet(tat, Math.max(tat, now) + interval)) return 0;
+        }
+    }
+
+    /**
+     * Tries to use the bucket of a player
+     *
+     * @param uuid unique id of the player
+     * @return 0 if the use is allowed, otherwise how many milliseconds to wait before the next use
+     */
+    public long tryAcquire(@NotNull UUID uuid) {
+        long key = hash(uuid);
+        long now = now();
+        retry:
+        while (true) {
+            Table table = this.table;
+            AtomicLongArray slots = table.slots;
+            int slot = (int) key & table.mask;
+            while (true) {
+                long current = slots.get(slot << 1);
+                if (current == key) break;
+                if (current == 0) {
+                    if (!slots.compareAndSet(slot << 1, 0, key)) continue;
+                    if (table.used.incrementAndGet() > table.mask >> 1) {
+                        rebuild(table, now);
+                        continue retry;
+                    }
+                    break;
+                }
+                slot = (slot + 1) & table.mask;
+            }
+
+            int index = (slot << 1) + 1;
+            while (true) {
+                long tat = slots.get(index);
+                if (tat == RETIRED) {
+                    // Waits for the rebuild that retired it to publish the new table
+                    rebuild(table, now);
+                    continue retry;
+                }
+                long wait = waitTime(tat, now);
+                if (wait > 0) return wait;
+                if (slots.compareAndSet(index, tat, Math.max(tat, now) + interval)) return 0;
+            }
+        }
+    }
+
+    /**
+     * Gets how many players have a bucket that isn't full yet
+     */
+    public int size() {
+        Table table = this.table;
+        long now = now();
+        int size = 0;
+        for (int i = 0; i <= table.mask; i++) {
+            if (table.slots.get((i << 1) + 1) > now) size++;
+        }
+        return size;
+    }
+
+    /**
+     * Fills every bucket again
+     */
+    public synchronized void reset() {
+        global.set(0);
+        table = new Table(MIN_CAPACITY);
+    }
+
+    private long waitTime(long tat, long now) {
+        return Math.max(tat, now) - now - tolerance;
+    }
+
+    // Milliseconds since this limiter was created, plus one so that 0 means never used
+    private long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - origin) + 1;
+    }
+
+    // Copies the buckets that aren't full yet into a new table, sized for them
+    // Every bucket of the old table is retired as it's read, so that a use can no longer be made in it and lost
+    private synchronized void rebuild(Table old, long now) {
+        if (table != old) return;
+        long[] tats = new long[old.mask + 1];
+        int live = 0;
+        for (int i = 0; i <= old.mask; i++) {
+            tats[i] = old.slots.getAndSet((i << 1) + 1, RETIRED);
+            if (tats[i] > now) live++;
+        }
+
+        Table rebuilt = new Table(Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, live)) << 3));
+        for (int i = 0; i <= old.mask; i++) {
+            long tat = tats[i];
+            if (tat <= now) continue;
+            long key = old.slots.get(i << 1);
+            int slot = (int) key & rebuilt.mask;
+            while (rebuilt.slots.get(slot << 1) != 0) {
+                slot = (slot + 1) & rebuilt.mask;
+            }
+            rebuilt.slots.set(slot << 1, key);
+            rebuilt.slots.set((slot << 1) + 1, tat);
+        }
+        rebuilt.used.set(live);
+        table = rebuilt;
+    }
+
+    private static long hash(UUID uuid) {
+        long h = uuid.getMostSignificantBits() * 0x9E3779B97F4A7C15L ^ uuid.getLeastSignificantBits();
+        h ^= h >>> 32;
+        h *= 0xD6E8FEB86659FD93L;
+        h ^= h >>> 32;
+        return h == 0 ? 1 : h;
+    }
+
+    // Every slot is a key and the time at which its bucket is full again, a key is never removed from a table
+    private static final class Table {
+        private final AtomicLongArray slots;
+        private final AtomicInteger used = new AtomicInteger();
+        private final int mask;
+
+        private Table(int capacity) {
+            slots = new AtomicLongArray(capacity << 1);
+            mask = capacity - 1;
+        }
+    }
+}
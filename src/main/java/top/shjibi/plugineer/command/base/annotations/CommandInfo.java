@@ -2,6 +2,7 @@ package top.shjibi.plugineer.command.base.annotations;
 
 import org.bukkit.command.ConsoleCommandSender;
 import org.bukkit.entity.Player;
+import top.shjibi.plugineer.command.base.CommandHandler;
 import top.shjibi.plugineer.command.base.ConsoleCommandHandler;
 import top.shjibi.plugineer.command.base.PlayerCommandHandler;
 
@@ -31,6 +32,31 @@ public @interface CommandInfo {
      */
     int minArgs() default 0;
 
+    /**
+     * Whether to run the command off the main thread, on a virtual thread if the server supports them. Use {@link CommandHandler#runSync} or {@link CommandHandler#callSync} to hand results back to the main thread
+     */
+    boolean async() default false;
+
+    /**
+     * Milliseconds to wait between two uses of the command(s), 0 for no limit. With a burst, one use is given back every cooldown
+     */
+    long cooldown() default 0;
+
+    /**
+     * How many uses of the command(s) can be made in a row before the cooldown applies
+     */
+    int burst() default 1;
+
+    /**
+     * Whether the cooldown is shared by every sender instead of being per player, non players are only limited by a global cooldown
+     */
+    boolean globalCooldown() default false;
+
+    /**
+     * Message to send when the command is on cooldown, {@code <seconds>} is replaced with the seconds left
+     */
+    String[] cooldownMsg() default "&cPlease wait <seconds>s before using this command again!";
+
     /**
      * Message to send when a non {@link Player} executed the command (Only available for {@link PlayerCommandHandler})
      */
@@ -0,0 +1,164 @@
+package top.shjibi.plugineer.command.base.listener;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.shjibi.plugineer.command.base.LazyCommandHandler;
+import top.shjibi.plugineer.command.base.PlayerCommandHandler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * An immutable, case-insensitive index from command labels to silent handlers.
+ * <br>Every name of a handler is indexed both as-is and in its leading-slash form, and a lookup hashes the label in place, so no lower-cased copy of it is ever created.
+ * <br>An entry is either a {@link PlayerCommandHandler} or a {@link LazyCommandHandler}, which creates its handler when its label is looked up.
+ */
+final class SilentCommandIndex {
+
+    static final SilentCommandIndex EMPTY = new SilentCommandIndex(Collections.emptyList());
+
+    private final List<SilentEntry> entries;
+    private final String[] keys;
+    private final SilentEntry[] values;
+    private final int mask;
+
+    private SilentCommandIndex(List<SilentEntry> entries) {
+        this.entries = entries;
+
+        int count = 0;
+        for (SilentEntry entry : entries) {
+            count += entry.getNames().length * 2;
+        }
+
+        int capacity = 8;
+        while (capacity < count * 2) capacity <<= 1;
+        keys = new String[capacity];
+        values = new SilentEntry[capacity];
+        mask = capacity - 1;
+
+        for (SilentEntry entry : entries) {
+            for (String name : entry.getNames()) {
+                put(name, entry);
+                put("/" + name, entry);
+            }
+        }
+    }
+
+    /**
+     * Creates a new index that contains every entry of this index plus the given one.
+     *
+     * @param entry the handler or the lazy handler to add
+     * @return the new index
+     */
+    @NotNull
+    SilentCommandIndex with(@NotNull SilentEntry entry) {
+        List<SilentEntry> list = new ArrayList<>(entries.size() + 1);
+        list.addAll(entries);
+        list.add(entry);
+        return new SilentCommandIndex(Collections.unmodifiableList(list));
+    }
+
+    /**
+     * Creates a new index where an entry is replaced by another in place, so the new one keeps the labels the old one claimed.
+     *
+     * @param old   the entry to replace
+     * @param entry the entry to replace it with
+     * @return the new index, or this index if it doesn't contain the old entry
+     */
+    @NotNull
+    SilentCommandIndex replace(@NotNull SilentEntry old, @NotNull SilentEntry entry) {
+        int i = entries.indexOf(old);
+        if (i < 0) return this;
+        List<SilentEntry> list = new ArrayList<>(entries);
+        list.set(i, entry);
+        return new SilentCommandIndex(Collections.unmodifiableList(list));
+    }
+
+    /**
+     * Creates a new index that contains every entry of this index but the ones that match the filter.
+     *
+     * @param filter the filter of the entries to remove
+     * @return the new index, or this index if no entry matches
+     */
+    @NotNull
+    SilentCommandIndex without(@NotNull Predicate<SilentEntry> filter) {
+        List<SilentEntry> list = new ArrayList<>(entries.size());
+        for (SilentEntry entry : entries) {
+            if (!filter.test(entry)) list.add(entry);
+        }
+        if (list.size() == entries.size()) return this;
+        return list.isEmpty() ? EMPTY : new SilentCommandIndex(Collections.unmodifiableList(list));
+    }
+
+    /**
+     * Gets the handler of a label, ignoring case.
+     *
+     * @param s     the string that contains the label
+     * @param start index of the first character of the label
+     * @param end   index after the last character of the label
+     * @return the handler of the label or null if there isn't one
+     */
+    @Nullable
+    PlayerCommandHandler get(@NotNull String s, int start, int end) {
+        int length = end - start;
+        for (int i = hash(s, start, end) & mask; ; i = (i + 1) & mask) {
+            String key = keys[i];
+            if (key == null) return null;
+            if (key.length() == length && key.regionMatches(true, 0, s, start, length)) return values[i].getSilentHandler();
+        }
+    }
+
+    /**
+     * Gets the handler of a label, ignoring case.
+     *
+     * @param label the label
+     * @return the handler of the label or null if there isn't one
+     */
+    @Nullable
+    PlayerCommandHandler get(@NotNull String label) {
+        return get(label, 0, label.length());
+    }
+
+    /**
+     * Gets the handlers in this index that have been created, in the order they were added.
+     */
+    @NotNull
+    List<PlayerCommandHandler> getHandlers() {
+        List<PlayerCommandHandler> handlers = new ArrayList<>(entries.size());
+        for (SilentEntry entry : entries) {
+            // A lazy handler is replaced by its handler once it's created
+            if (entry instanceof PlayerCommandHandler) handlers.add((PlayerCommandHandler) entry);
+        }
+        return handlers;
+    }
+
+    /**
+     * Gets the entries in this index, in the order they were added.
+     */
+    @NotNull
+    List<SilentEntry> getEntries() {
+        return entries;
+    }
+
+    private void put(String key, SilentEntry handler) {
+        for (int i = hash(key, 0, key.length()) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == null) {
+                keys[i] = key;
+                values[i] = handler;
+                return;
+            }
+            // The first handler that claims a label keeps it
+            if (keys[i].equals(key)) return;
+        }
+    }
+
+    private static int hash(String s, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + Character.toLowerCase(s.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+}
@@ -1,94 +1,182 @@
 package top.shjibi.plugineer.command.base.listener;
 
 import com.google.common.base.Preconditions;
-import org.bukkit.command.CommandException;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import top.shjibi.plugineer.command.CommandManager;
+import top.shjibi.plugineer.command.base.LazyCommandHandler;
 import top.shjibi.plugineer.command.base.PlayerCommandHandler;
+import top.shjibi.plugineer.util.CommandTokenizer;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
+/**
+ * <p>The listener that dispatches silent commands, shared by every plugin.
+ * <br>The silent handlers of every plugin are kept in one combined index, so a command is looked up once however many plugins use Plugineer.
+ * When two plugins claim the same label, the handler added first keeps it.
+ * <br>The listener registers itself on behalf of the first plugin that uses it, and moves to another plugin when that one is disabled.
+ * When a plugin is disabled, its handlers are removed from the index and its {@link CommandManager} is shut down, so neither keeps the plugin around.
+ * </p>
+ */
 public class SilentCommandListener implements Listener {
 
-    private static SilentCommandListener instance;
-    private final JavaPlugin plugin;
-    private final List<PlayerCommandHandler> silentHandlers = new ArrayList<>();
+    private static final SilentCommandListener instance = new SilentCommandListener();
+    private volatile SilentCommandIndex index = SilentCommandIndex.EMPTY;
+    // The plugin that the listener is registered for
+    @Nullable
+    private Plugin owner;
 
-    private SilentCommandListener(JavaPlugin plugin) {
-        this.plugin = plugin;
+    private SilentCommandListener() {
     }
 
     /**
-     * Gets or create the only instance of {@link SilentCommandListener} for a plugin.
+     * Gets the listener shared by every plugin, registering it for the plugin if no plugin has yet.
      *
-     * @return the instance of {@link SilentCommandListener} for a plugin
+     * @return the shared instance of {@link SilentCommandListener}
      */
     @NotNull
     public static SilentCommandListener get(@NotNull JavaPlugin plugin) {
         Preconditions.checkNotNull(plugin, "'plugin' cannot be null!");
-        if (instance == null) instance = new SilentCommandListener(plugin);
+        instance.registerFor(plugin);
         return instance;
     }
 
+    private synchronized void registerFor(Plugin plugin) {
+        if (owner != null && owner.isEnabled()) return;
+        // Drops the registration for the disabled owner first, so the listener never dispatches twice
+        HandlerList.unregisterAll(this);
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        owner = plugin;
+    }
+
     @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerCommandPreprocess(PlayerCommandPreprocessEvent e) {
-        String[] split = e.getMessage().split(" ");
-        String label = split[0];
-        PlayerCommandHandler handler = getSilentHandler(label);
+        String message = e.getMessage();
+        int labelEnd = CommandTokenizer.labelEnd(message, 0);
+        PlayerCommandHandler handler = index.get(message, 0, labelEnd);
 
         if (handler == null) return;
 
         Player sender = e.getPlayer();
         e.setCancelled(true);
-        String[] args = new String[split.length - 1];
-        System.arraycopy(split, 1, args, 0, args.length);
+        String label = message.substring(message.startsWith("/") ? 1 : 0, labelEnd);
+        String[] args = CommandTokenizer.tokenize(message, labelEnd);
 
         try {
-            handler.execute(sender, null, label, args);
+            handler.dispatch(sender, null, label, args);
         } catch (Throwable ex) {
-            sender.sendMessage(org.bukkit.ChatColor.RED + "An internal error occurred while attempting to perform this command");
-            throw new CommandException("Unhandled exception executing command '" + label + "' in plugin " + plugin.getDescription().getFullName(), ex);
+            throw handler.handleException(sender, label, ex);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public synchronized void onPluginDisable(PluginDisableEvent e) {
+        Plugin plugin = e.getPlugin();
+        removeSilentHandlers(plugin);
+        for (CommandManager manager : CommandManager.getManagers()) {
+            if (manager.getPlugin() == plugin) manager.shutdown();
+        }
+        if (plugin != owner) return;
+
+        // The listeners of the disabled plugin are unregistered after this event, so register for another plugin first
+        owner = null;
+        for (SilentEntry entry : index.getEntries()) {
+            Plugin other = entry.getManager().getPlugin();
+            if (other.isEnabled()) {
+                registerFor(other);
+                return;
+            }
         }
     }
 
     /**
-     * Adds a handler to the silent handler list
+     * Adds a handler to the silent handler list, a lazy handler creates its handler the first time one of its commands is looked up
+     *
+     * @param handler the handler or the lazy handler to add
+     */
+    public synchronized void addSilentHandler(@NotNull SilentEntry handler) {
+        registerFor(handler.getManager().getPlugin());
+        index = index.with(handler);
+    }
+
+    /**
+     * Replaces a lazy handler with the handler it created, keeping the commands it claimed
+     *
+     * @param lazy    the lazy handler
+     * @param handler the handler it created
+     */
+    public synchronized void replaceSilentHandler(@NotNull LazyCommandHandler lazy, @NotNull PlayerCommandHandler handler) {
+        index = index.replace(lazy, handler);
+    }
+
+    /**
+     * Removes every silent handler of a plugin
+     *
+     * @param plugin the plugin whose handlers to remove
+     */
+    public synchronized void removeSilentHandlers(@NotNull Plugin plugin) {
+        index = index.without(entry -> entry.getManager().getPlugin() == plugin);
+    }
+
+    /**
+     * Removes some silent handlers at once, a label of a removed handler moves to the next handler that claims it in the same step
      *
-     * @param handler the handler to add
+     * @param handlers the handlers or the lazy handlers to remove
      */
-    public void addSilentHandler(@NotNull PlayerCommandHandler handler) {
-        silentHandlers.add(handler);
+    public synchronized void removeSilentHandlers(@NotNull Collection<? extends SilentEntry> handlers) {
+        if (handlers.isEmpty()) return;
+        Set<SilentEntry> removed = new HashSet<>(handlers);
+        index = index.without(removed::contains);
     }
 
     /**
-     * Returns an immutable copy of silent handlers.
+     * Returns an immutable copy of silent handlers of every plugin, lazy handlers are included once they are created.
      *
      * @return an immutable copy of silent handlers
      */
     @NotNull
     public List<PlayerCommandHandler> getSilentHandlers() {
-        return new ArrayList<>(silentHandlers);
+        return new ArrayList<>(index.getHandlers());
+    }
+
+    /**
+     * Returns a copy of the silent handlers of a plugin.
+     *
+     * @param plugin the plugin
+     * @return a copy of the silent handlers of the plugin
+     */
+    @NotNull
+    public List<PlayerCommandHandler> getSilentHandlers(@NotNull Plugin plugin) {
+        List<PlayerCommandHandler> handlers = new ArrayList<>();
+        for (PlayerCommandHandler handler : index.getHandlers()) {
+            if (handler.getManager().getPlugin() == plugin) handlers.add(handler);
+        }
+        return handlers;
     }
 
     /**
-     * Gets the associated silent handler for a silent command
+     * Gets the associated silent handler for a silent command, ignoring case
      *
-     * @param label The given command
+     * @param label The given command, with or without the leading slash
      * @return the {@link PlayerCommandHandler} associated with this command or null if there isn't one
      */
     @Nullable
-    public PlayerCommandHandler getSilentHandler(String label) {
-        Optional<PlayerCommandHandler> optional = silentHandlers.stream()
-                .filter(handler -> handler.isCommandApplicable(label)).findAny();
-        return optional.orElse(null);
+    public PlayerCommandHandler getSilentHandler(@NotNull String label) {
+        return index.get(label);
     }
 
 }
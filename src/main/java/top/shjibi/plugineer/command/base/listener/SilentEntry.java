@@ -0,0 +1,30 @@
+package top.shjibi.plugineer.command.base.listener;
+
+import org.jetbrains.annotations.NotNull;
+import top.shjibi.plugineer.command.CommandManager;
+import top.shjibi.plugineer.command.base.LazyCommandHandler;
+import top.shjibi.plugineer.command.base.PlayerCommandHandler;
+
+/**
+ * An entry of the silent handlers, either a {@link PlayerCommandHandler} or a {@link LazyCommandHandler} that stands in for one.
+ */
+public interface SilentEntry {
+
+    /**
+     * Gets the lower-cased names of commands associated with the entry
+     */
+    @NotNull
+    String[] getNames();
+
+    /**
+     * Gets the manager that the entry is bound to
+     */
+    @NotNull
+    CommandManager getManager();
+
+    /**
+     * Gets the handler that runs the commands of the entry, a lazy entry creates it the first time
+     */
+    @NotNull
+    PlayerCommandHandler getSilentHandler();
+}
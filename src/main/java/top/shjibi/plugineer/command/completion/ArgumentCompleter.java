@@ -0,0 +1,58 @@
+package top.shjibi.plugineer.command.completion;
+
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Completes raw arguments from a {@link CompletionSource} per argument position.
+ * <br>Use it in {@code completeTab} of handlers that don't declare an argument graph.
+ * </p>
+ */
+public final class ArgumentCompleter {
+
+    @NotNull
+    private CompletionSource[] sources = new CompletionSource[0];
+
+    /**
+     * Sets the source of an argument position
+     *
+     * @param position the position of the argument, starting from 0
+     * @param source   the source of the argument
+     * @return this completer
+     */
+    @NotNull
+    public ArgumentCompleter at(int position, @NotNull CompletionSource source) {
+        if (position >= sources.length) sources = Arrays.copyOf(sources, position + 1);
+        sources[position] = source;
+        return this;
+    }
+
+    /**
+     * Gets the source of an argument position
+     *
+     * @param position the position of the argument, starting from 0
+     * @return the source or null if the position has none
+     */
+    @Nullable
+    public CompletionSource getSource(int position) {
+        return position >= 0 && position < sources.length ? sources[position] : null;
+    }
+
+    /**
+     * Completes the last argument
+     *
+     * @param sender the sender who is completing
+     * @param args   the arguments, the last one is the one to complete
+     * @return the completions, which are immutable
+     */
+    @NotNull
+    public List<String> complete(@NotNull CommandSender sender, @NotNull String[] args) {
+        CompletionSource source = getSource(args.length - 1);
+        return source == null ? Collections.emptyList() : source.complete(sender, args[args.length - 1]);
+    }
+}
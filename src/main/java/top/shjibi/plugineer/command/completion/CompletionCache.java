@@ -0,0 +1,124 @@
+package top.shjibi.plugineer.command.completion;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * <p>A short-lived cache of completions for each owner, sender and prefix.
+ * <br>A cache can be shared by several {@link CompletionSource}s, the entries of each are kept apart by its identity.
+ * <br>Every entry remembers the version of the candidates it was computed from, so a change to the candidates only invalidates the entries computed from them.
+ * </p>
+ */
+public final class CompletionCache {
+
+    /**
+     * How long completions are cached by default, in milliseconds
+     */
+    public static final long DEFAULT_TTL_MILLIS = 1000;
+
+    /**
+     * How many completions are cached at most by default
+     */
+    public static final int DEFAULT_MAX_SIZE = 4096;
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a cache
+     *
+     * @param ttlMillis how long completions are cached, in milliseconds
+     * @param maxSize   how many completions are cached at most
+     */
+    public CompletionCache(long ttlMillis, int maxSize) {
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Constructs a cache with the default time to live and size
+     */
+    public CompletionCache() {
+        this(DEFAULT_TTL_MILLIS, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Gets the cached completions, or computes and caches them
+     *
+     * @param owner   the owner of the candidates, like a {@link CompletionSource}, compared by identity
+     * @param sender  the sender who is completing
+     * @param prefix  the prefix to complete
+     * @param version the current version of the candidates
+     * @param loader  the function that computes the completions
+     * @return the completions, which are immutable
+     */
+    @NotNull
+    public List<String> get(@NotNull Object owner, @NotNull CommandSender sender, @NotNull String prefix, long version, @NotNull Supplier<List<String>> loader) {
+        if (ttlNanos <= 0) return loader.get();
+        long now = System.nanoTime();
+        Key key = new Key(owner, sender instanceof Entity ? ((Entity) sender).getUniqueId() : sender.getName(), prefix);
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version == version && now - entry.expiresAt < 0) return entry.completions;
+
+        List<String> completions = Collections.unmodifiableList(loader.get());
+        entries.put(key, new Entry(completions, version, now + ttlNanos));
+        if (entries.size() > maxSize) {
+            entries.values().removeIf(e -> now - e.expiresAt >= 0);
+            if (entries.size() > maxSize) entries.clear();
+        }
+        return completions;
+    }
+
+    /**
+     * Removes every cached completion
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private static final class Key {
+        private final Object owner;
+        private final Object sender;
+        private final String prefix;
+
+        private Key(Object owner, Object sender, String prefix) {
+            this.owner = owner;
+            this.sender = sender;
+            this.prefix = prefix;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return owner == key.owner && sender.equals(key.sender) && prefix.equals(key.prefix);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * System.identityHashCode(owner) + sender.hashCode()) + prefix.hashCode();
+        }
+    }
+
+    private static final class Entry {
+        private final List<String> completions;
+        private final long version;
+        private final long expiresAt;
+
+        private Entry(List<String> completions, long version, long expiresAt) {
+            this.completions = completions;
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package top.shjibi.plugineer.command.completion;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <p>An immutable, sorted set of completion candidates.
+ * <br>Completing a prefix is two binary searches, and the result is a view of the index rather than a copy.
+ * </p>
+ */
+public final class CompletionIndex {
+
+    private static final CompletionIndex EMPTY = new CompletionIndex(new String[0], new String[0]);
+
+    private final String[] keys;
+    private final List<String> values;
+
+    private CompletionIndex(String[] keys, String[] values) {
+        this.keys = keys;
+        this.values = Collections.unmodifiableList(Arrays.asList(values));
+    }
+
+    /**
+     * Creates an index of the given candidates, when candidates only differ in case, the last one is kept
+     *
+     * @param candidates the candidates
+     * @return the index
+     */
+    @NotNull
+    public static CompletionIndex of(@NotNull Collection<String> candidates) {
+        if (candidates.isEmpty()) return EMPTY;
+        String[][] sorted = new String[candidates.size()][];
+        int n = 0;
+        for (String candidate : candidates) {
+            sorted[n++] = new String[]{candidate.toLowerCase(Locale.ENGLISH), candidate};
+        }
+        // Stable sort, so of the candidates that only differ in case, the last one ends up last
+        Arrays.sort(sorted, Comparator.comparing(pair -> pair[0]));
+
+        String[] keys = new String[sorted.length];
+        String[] values = new String[sorted.length];
+        int size = 0;
+        for (String[] pair : sorted) {
+            if (size > 0 && keys[size - 1].equals(pair[0])) size--;
+            keys[size] = pair[0];
+            values[size++] = pair[1];
+        }
+        return new CompletionIndex(Arrays.copyOf(keys, size), Arrays.copyOf(values, size));
+    }
+
+    /**
+     * Creates an index of the given candidates
+     *
+     * @param candidates the candidates
+     * @return the index
+     */
+    @NotNull
+    public static CompletionIndex of(@NotNull String... candidates) {
+        return of(Arrays.asList(candidates));
+    }
+
+    /**
+     * Gets the candidates that start with the prefix, ignoring case
+     *
+     * @param prefix the prefix
+     * @return an immutable view of the candidates, sorted by their lower-cased form
+     */
+    @NotNull
+    public List<String> complete(@NotNull String prefix) {
+        if (prefix.isEmpty()) return values;
+        int from = bound(prefix, false);
+        int to = bound(prefix, true);
+        return from == to ? Collections.emptyList() : values.subList(from, to);
+    }
+
+    /**
+     * Gets the candidate that equals the given string, ignoring case
+     *
+     * @param s the string
+     * @return the candidate or null if there isn't one
+     */
+    public String get(@NotNull String s) {
+        int i = bound(s, false);
+        return i < keys.length && keys[i].length() == s.length() && keys[i].regionMatches(true, 0, s, 0, s.length()) ? values.get(i) : null;
+    }
+
+    /**
+     * Gets every candidate, sorted by their lower-cased form
+     */
+    @NotNull
+    public List<String> getCandidates() {
+        return values;
+    }
+
+    /**
+     * Gets the number of candidates
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    // The first key that is not before the prefix or, if after is true, the first key that is after every key starting with the prefix
+    private int bound(String prefix, boolean after) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(keys[mid], prefix);
+            if (cmp < 0 || (after && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Zero if the key starts with the prefix, ignoring case
+    private static int compare(String key, String prefix) {
+        int length = Math.min(key.length(), prefix.length());
+        for (int i = 0; i < length; i++) {
+            char a = key.charAt(i);
+            char b = Character.toLowerCase(prefix.charAt(i));
+            if (a != b) return a - b;
+        }
+        return key.length() < prefix.length() ? -1 : 0;
+    }
+}
@@ -0,0 +1,153 @@
+package top.shjibi.plugineer.command.completion;
+
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>A thread-safe, mutable set of completion candidates, like warps, kits or arenas.
+ * <br>Candidates are kept sorted, so they can be added and removed one by one and a prefix is found in logarithmic time.
+ * Completions are cached for each sender and prefix until the candidates change.
+ * </p>
+ */
+public final class CompletionSource {
+
+    private final ConcurrentSkipListMap<String, String> candidates = new ConcurrentSkipListMap<>();
+    private final AtomicLong version = new AtomicLong();
+    @NotNull
+    private final CompletionCache cache;
+
+    /**
+     * Constructs an empty source with the given cache, which can be shared with other sources
+     *
+     * @param cache the cache of completions
+     */
+    public CompletionSource(@NotNull CompletionCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Constructs an empty source with the default cache
+     */
+    public CompletionSource() {
+        this(new CompletionCache());
+    }
+
+    /**
+     * Constructs a source with the given candidates and the default cache
+     *
+     * @param candidates the candidates
+     */
+    public CompletionSource(@NotNull Collection<String> candidates) {
+        this();
+        addAll(candidates);
+    }
+
+    /**
+     * Adds a candidate, replacing the one that only differs in case
+     *
+     * @param candidate the candidate to add
+     */
+    public void add(@NotNull String candidate) {
+        candidates.put(candidate.toLowerCase(Locale.ENGLISH), candidate);
+        version.incrementAndGet();
+    }
+
+    /**
+     * Adds some candidates
+     *
+     * @param candidates the candidates to add
+     */
+    public void addAll(@NotNull Collection<String> candidates) {
+        for (String candidate : candidates) {
+            this.candidates.put(candidate.toLowerCase(Locale.ENGLISH), candidate);
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Removes a candidate, ignoring case
+     *
+     * @param candidate the candidate to remove
+     */
+    public void remove(@NotNull String candidate) {
+        if (candidates.remove(candidate.toLowerCase(Locale.ENGLISH)) != null) version.incrementAndGet();
+    }
+
+    /**
+     * Removes every candidate
+     */
+    public void clear() {
+        candidates.clear();
+        version.incrementAndGet();
+    }
+
+    /**
+     * Gets the candidate that equals the given string, ignoring case
+     *
+     * @param s the string
+     * @return the candidate or null if there isn't one
+     */
+    @Nullable
+    public String get(@NotNull String s) {
+        return candidates.get(s.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Gets whether there's a candidate that equals the given string, ignoring case
+     */
+    public boolean contains(@NotNull String s) {
+        return get(s) != null;
+    }
+
+    /**
+     * Gets the number of candidates
+     */
+    public int size() {
+        return candidates.size();
+    }
+
+    /**
+     * Gets the version of the candidates, which changes every time they change
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Gets the candidates that start with the prefix, ignoring case
+     *
+     * @param prefix the prefix
+     * @return the candidates, sorted by their lower-cased form
+     */
+    @NotNull
+    public List<String> complete(@NotNull String prefix) {
+        String key = prefix.toLowerCase(Locale.ENGLISH);
+        List<String> list = new ArrayList<>();
+        for (Map.Entry<String, String> entry : candidates.tailMap(key).entrySet()) {
+            if (!entry.getKey().startsWith(key)) break;
+            list.add(entry.getValue());
+        }
+        return list;
+    }
+
+    /**
+     * Gets the candidates that start with the prefix, ignoring case, from the cache if the sender completed the same prefix recently
+     *
+     * @param sender the sender who is completing
+     * @param prefix the prefix
+     * @return the candidates, which are immutable
+     */
+    @NotNull
+    public List<String> complete(@NotNull CommandSender sender, @NotNull String prefix) {
+        return cache.get(this, sender, prefix, version.get(), () -> complete(prefix));
+    }
+}
@@ -0,0 +1,63 @@
+package top.shjibi.plugineer.command.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The statistics of every command of a command manager.
+ */
+public final class CommandMetrics {
+
+    private final Map<String, CommandStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Gets or creates the statistics of a command
+     *
+     * @param name name of the command
+     * @return the live statistics of the command
+     */
+    @NotNull
+    public CommandStats get(@NotNull String name) {
+        return stats.computeIfAbsent(name, CommandStats::new);
+    }
+
+    /**
+     * Takes a snapshot of the statistics of every command
+     *
+     * @return the snapshots, in no particular order
+     */
+    @NotNull
+    public List<CommandSnapshot> snapshot() {
+        List<CommandSnapshot> list = new ArrayList<>(stats.size());
+        for (CommandStats commandStats : stats.values()) {
+            list.add(commandStats.snapshot());
+        }
+        return list;
+    }
+
+    /**
+     * Gets the slowest commands, by the 99th percentile of their execution latencies
+     *
+     * @param n how many commands to get at most
+     * @return the snapshots of the slowest commands, slowest first
+     */
+    @NotNull
+    public List<CommandSnapshot> slowest(int n) {
+        List<CommandSnapshot> list = snapshot();
+        list.removeIf(snapshot -> snapshot.getExecutions() == 0);
+        list.sort(Comparator.comparingLong(CommandSnapshot::getP99).thenComparingLong(CommandSnapshot::getMax).reversed());
+        return list.size() > n ? new ArrayList<>(list.subList(0, n)) : list;
+    }
+
+    /**
+     * Removes every recorded statistic
+     */
+    public void reset() {
+        stats.values().forEach(CommandStats::reset);
+    }
+}
@@ -0,0 +1,102 @@
+package top.shjibi.plugineer.command.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An immutable snapshot of the statistics of a command, latencies are in nanoseconds.
+ */
+public final class CommandSnapshot {
+
+    @NotNull
+    private final String name;
+    private final long executions;
+    private final long errors;
+    private final long completions;
+    private final long mean;
+    private final long p50;
+    private final long p99;
+    private final long max;
+    private final long completionP99;
+
+    CommandSnapshot(@NotNull String name, long executions, long errors, long completions, long mean, long p50, long p99, long max, long completionP99) {
+        this.name = name;
+        this.executions = executions;
+        this.errors = errors;
+        this.completions = completions;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.max = max;
+        this.completionP99 = completionP99;
+    }
+
+    /**
+     * Gets the name of the command
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of executions
+     */
+    public long getExecutions() {
+        return executions;
+    }
+
+    /**
+     * Gets the number of executions that threw an exception
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Gets the number of tab completions
+     */
+    public long getCompletions() {
+        return completions;
+    }
+
+    /**
+     * Gets the mean execution latency
+     */
+    public long getMean() {
+        return mean;
+    }
+
+    /**
+     * Gets the median execution latency
+     */
+    public long getP50() {
+        return p50;
+    }
+
+    /**
+     * Gets the 99th percentile of execution latencies
+     */
+    public long getP99() {
+        return p99;
+    }
+
+    /**
+     * Gets the highest execution latency
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the 99th percentile of tab completion latencies
+     */
+    public long getCompletionP99() {
+        return completionP99;
+    }
+
+    @Override
+    public String toString() {
+        return "CommandSnapshot {name: " + name + ", executions: " + executions + ", errors: " + errors + ", completions: " + completions
+                + ", mean: " + mean + ", p50: " + p50 + ", p99: " + p99 + ", max: " + max + ", completionP99: " + completionP99 + "}";
+    }
+}
@@ -0,0 +1,79 @@
+package top.shjibi.plugineer.command.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The live, lock-free statistics of a command.
+ */
+public final class CommandStats {
+
+    @NotNull
+    private final String name;
+    private final LatencyHistogram executions = new LatencyHistogram();
+    private final LatencyHistogram completions = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    CommandStats(@NotNull String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records an execution of the command
+     *
+     * @param nanos how long the execution took, in nanoseconds
+     */
+    public void recordExecution(long nanos) {
+        executions.record(nanos);
+    }
+
+    /**
+     * Records a tab completion of the command
+     *
+     * @param nanos how long the completion took, in nanoseconds
+     */
+    public void recordCompletion(long nanos) {
+        completions.record(nanos);
+    }
+
+    /**
+     * Records an execution that threw an exception
+     */
+    public void recordError() {
+        errors.increment();
+    }
+
+    /**
+     * Gets the name of the command
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Takes a snapshot of the statistics
+     */
+    @NotNull
+    public CommandSnapshot snapshot() {
+        return new CommandSnapshot(name,
+                executions.getCount(),
+                errors.sum(),
+                completions.getCount(),
+                executions.getMean(),
+                executions.getPercentile(0.5),
+                executions.getPercentile(0.99),
+                executions.getMax(),
+                completions.getPercentile(0.99));
+    }
+
+    /**
+     * Removes every recorded statistic
+     */
+    public void reset() {
+        executions.reset();
+        completions.reset();
+        errors.reset();
+    }
+}
@@ -0,0 +1,48 @@
+package top.shjibi.plugineer.data;
+
+import org.bukkit.NamespacedKey;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Encodes a type into one binary value of a persistent data container.
+ * <br>Codecs of records are made by {@link DataCodecs}, other types register theirs with {@link DataCodecs#register}.
+ * {@link DataCodecs} writes the version before the encoded value, and reads it back for {@link #decode}.
+ * </p>
+ *
+ * @param <T> the type to encode
+ */
+public interface DataCodec<T> {
+
+    /**
+     * Gets the key that values are stored under
+     */
+    @NotNull
+    NamespacedKey getKey();
+
+    /**
+     * Gets the version of the schema that {@link #encode} writes
+     */
+    int getVersion();
+
+    /**
+     * Encodes a value
+     *
+     * @param value the value
+     * @param out   the output, {@link DataCodecs} has helpers for var ints and strings
+     */
+    void encode(@NotNull T value, @NotNull DataOutput out) throws IOException;
+
+    /**
+     * Decodes a value, reading it straight from the stored bytes
+     *
+     * @param in      the input, positioned after the version
+     * @param version the version of the schema the value was written with
+     * @return the value
+     */
+    @NotNull
+    T decode(@NotNull ByteBuffer in, int version);
+}
@@ -0,0 +1,241 @@
+package top.shjibi.plugineer.data;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Stores whole objects in persistent data containers, each as one byte array under the key of its type.
+ * <br>Codecs are found once per type: the registered one, or one made from the components of a record.
+ * A stored value starts with the version of its schema, read back without copying the bytes.
+ * </p>
+ */
+public final class DataCodecs {
+
+    private DataCodecs() {
+    }
+
+    private static final Map<Class<?>, DataCodec<?>> registered = new ConcurrentHashMap<>();
+
+    private static final ClassValue<DataCodec<?>> recordCodecs = new ClassValue<>() {
+        @Override
+        protected DataCodec<?> computeValue(@NotNull Class<?> type) {
+            return RecordCodec.of(type);
+        }
+    };
+
+    /**
+     * Registers the codec of a type that isn't a record, or replaces the codec of a record
+     *
+     * @param type  the type
+     * @param codec the codec of the type
+     */
+    public static <T> void register(@NotNull Class<T> type, @NotNull DataCodec<T> codec) {
+        Preconditions.checkNotNull(type, "'type' cannot be null!");
+        Preconditions.checkNotNull(codec, "'codec' cannot be null!");
+        registered.put(type, codec);
+    }
+
+    /**
+     * Gets the codec of a type
+     *
+     * @param type the type
+     * @return the registered codec, or the one made from the record
+     * @throws IllegalArgumentException if the type has no registered codec and isn't a record
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public static <T> DataCodec<T> get(@NotNull Class<T> type) {
+        DataCodec<?> codec = registered.get(type);
+        if (codec != null) return (DataCodec<T>) codec;
+        Preconditions.checkArgument(type.isRecord(), "No codec for %s, register one or make it a record", type.getName());
+        return (DataCodec<T>) recordCodecs.get(type);
+    }
+
+    /**
+     * Encodes a value into its stored form, the version followed by the value
+     *
+     * @param value the value
+     * @return the bytes
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public static <T> byte[] encode(@NotNull T value) {
+        DataCodec<T> codec = get((Class<T>) value.getClass());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            writeVarInt(out, codec.getVersion());
+            codec.encode(value, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a value from its stored form
+     *
+     * @param type  the type of the value
+     * @param bytes the bytes, as returned by {@link #encode}
+     * @return the value
+     * @throws IllegalArgumentException if the bytes are not a value of the type
+     */
+    @NotNull
+    public static <T> T decode(@NotNull Class<T> type, @NotNull byte[] bytes) {
+        DataCodec<T> codec = get(type);
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        try {
+            return codec.decode(in, readVarInt(in));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated " + type.getSimpleName() + " data", e);
+        }
+    }
+
+    /**
+     * Writes a value to a container, under the key of its type
+     *
+     * @param container the container
+     * @param value     the value
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void write(@NotNull PersistentDataContainer container, @NotNull T value) {
+        Preconditions.checkNotNull(value, "'value' cannot be null!");
+        container.set(get((Class<T>) value.getClass()).getKey(), PersistentDataType.BYTE_ARRAY, encode(value));
+    }
+
+    /**
+     * Reads a value of a type from a container
+     *
+     * @param container the container
+     * @param type      the type of the value
+     * @return the value, or null if the container has none
+     * @throws IllegalArgumentException if the stored bytes are not a value of the type
+     */
+    @Nullable
+    public static <T> T read(@NotNull PersistentDataContainer container, @NotNull Class<T> type) {
+        byte[] bytes = container.get(get(type).getKey(), PersistentDataType.BYTE_ARRAY);
+        return bytes == null ? null : decode(type, bytes);
+    }
+
+    /**
+     * Reads a value of a type from an item
+     *
+     * @param item the item
+     * @param type the type of the value
+     * @return the value, or null if the item has none
+     */
+    @Nullable
+    public static <T> T read(@NotNull ItemStack item, @NotNull Class<T> type) {
+        if (!item.hasItemMeta()) return null;
+        ItemMeta meta = item.getItemMeta();
+        return meta == null ? null : read(meta.getPersistentDataContainer(), type);
+    }
+
+    /**
+     * Removes the value of a type from a container
+     *
+     * @param container the container
+     * @param type      the type of the value
+     */
+    public static void remove(@NotNull PersistentDataContainer container, @NotNull Class<?> type) {
+        container.remove(get(type).getKey());
+    }
+
+    /**
+     * Writes an unsigned var int, 7 bits per byte
+     */
+    public static void writeVarInt(@NotNull DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads an unsigned var int
+     */
+    public static int readVarInt(@NotNull ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed var int");
+    }
+
+    /**
+     * Writes a signed var long, small negative values take few bytes
+     */
+    public static void writeVarLong(@NotNull DataOutput out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+
+    /**
+     * Reads a signed var long
+     */
+    public static long readVarLong(@NotNull ByteBuffer in) {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+        throw new IllegalArgumentException("Malformed var long");
+    }
+
+    /**
+     * Writes a nullable string, as its UTF-8 length plus one followed by its bytes
+     */
+    public static void writeString(@NotNull DataOutput out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeByte(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a nullable string, decoding it from the buffer's bytes in place
+     */
+    @Nullable
+    public static String readString(@NotNull ByteBuffer in) {
+        int length = readVarInt(in) - 1;
+        if (length < 0) return null;
+        if (length > in.remaining()) throw new BufferUnderflowException();
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            in.duplicate().get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        in.position(in.position() + length);
+        return value;
+    }
+}
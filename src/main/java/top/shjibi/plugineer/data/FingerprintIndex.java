@@ -0,0 +1,213 @@
+package top.shjibi.plugineer.data;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.shjibi.plugineer.nms.VersionAdapter;
+import top.shjibi.plugineer.nms.VersionAdapters;
+
+import java.util.Arrays;
+
+/**
+ * <p>Finds custom items by their fingerprint, see {@link ItemFingerprints}.
+ * <br>Every registered fingerprint gets an index, from 0 in the order they were registered, and a value, like the id or the template of the item.
+ * Fingerprints are kept in an open-addressed table of longs, so matching an item only compares longs.
+ * <br>Registering copies the table, so it's meant to be done once, reading can be done from any thread.
+ * </p>
+ *
+ * @param <V> the type of the values
+ */
+public final class FingerprintIndex<V> {
+
+    @NotNull
+    private volatile Table table = new Table(16, new long[0], new Object[0]);
+
+    /**
+     * Registers a fingerprint, replacing its value if it's already registered
+     *
+     * @param fingerprint the fingerprint, not {@link ItemFingerprints#none}
+     * @param value       the value of the fingerprint
+     * @return the index of the fingerprint
+     */
+    public synchronized int register(long fingerprint, @NotNull V value) {
+        Preconditions.checkArgument(fingerprint != ItemFingerprints.none, "A fingerprint cannot be %s", ItemFingerprints.none);
+        Preconditions.checkNotNull(value, "'value' cannot be null!");
+        Table current = table;
+        int index = current.indexOf(fingerprint);
+        if (index >= 0) {
+            Object[] values = current.values.clone();
+            values[index] = value;
+            table = new Table(current.keys.length, current.fingerprints, values);
+            return index;
+        }
+
+        int size = current.fingerprints.length;
+        long[] fingerprints = Arrays.copyOf(current.fingerprints, size + 1);
+        Object[] values = Arrays.copyOf(current.values, size + 1);
+        fingerprints[size] = fingerprint;
+        values[size] = value;
+        int capacity = current.keys.length;
+        while (capacity < (size + 1) * 2) capacity <<= 1;
+        table = new Table(capacity, fingerprints, values);
+        return size;
+    }
+
+    /**
+     * Gets the index of a fingerprint
+     *
+     * @return the index, or -1 if the fingerprint isn't registered
+     */
+    public int indexOf(long fingerprint) {
+        return table.indexOf(fingerprint);
+    }
+
+    /**
+     * Gets the value of a fingerprint
+     *
+     * @return the value, or null if the fingerprint isn't registered
+     */
+    @Nullable
+    public V get(long fingerprint) {
+        Table table = this.table;
+        int index = table.indexOf(fingerprint);
+        return index < 0 ? null : value(table, index);
+    }
+
+    /**
+     * Gets the value of an index
+     */
+    @NotNull
+    public V getValue(int index) {
+        Table table = this.table;
+        Preconditions.checkElementIndex(index, table.values.length);
+        return value(table, index);
+    }
+
+    /**
+     * Gets the fingerprint of an index
+     */
+    public long getFingerprint(int index) {
+        Table table = this.table;
+        Preconditions.checkElementIndex(index, table.fingerprints.length);
+        return table.fingerprints[index];
+    }
+
+    /**
+     * Gets how many fingerprints are registered
+     */
+    public int size() {
+        return table.fingerprints.length;
+    }
+
+    /**
+     * Gets the value of the item's fingerprint
+     *
+     * @param item the item, may be null or air
+     * @return the value, or null if the item isn't a registered custom item
+     */
+    @Nullable
+    public V match(@Nullable ItemStack item) {
+        long fingerprint = ItemFingerprints.read(item);
+        return fingerprint == ItemFingerprints.none ? null : get(fingerprint);
+    }
+
+    /**
+     * Counts the items with a fingerprint in an inventory
+     *
+     * @param inventory   the inventory
+     * @param fingerprint the fingerprint
+     * @return the total amount of the items
+     */
+    public int count(@NotNull Inventory inventory, long fingerprint) {
+        VersionAdapter adapter = VersionAdapters.get();
+        int count = 0;
+        for (ItemStack item : inventory.getContents()) {
+            if (item != null && item.getAmount() > 0 && adapter.getPersistentLong(item, ItemFingerprints.getKey()) == fingerprint) {
+                count += item.getAmount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts every registered item in some inventories, like the inventory of a player and a chest
+     *
+     * @param inventories the inventories
+     * @return the total amount of every registered item, by its index
+     */
+    @NotNull
+    public int[] countAll(@NotNull Inventory... inventories) {
+        Table table = this.table;
+        VersionAdapter adapter = VersionAdapters.get();
+        int[] counts = new int[table.fingerprints.length];
+        for (Inventory inventory : inventories) {
+            for (ItemStack item : inventory.getContents()) {
+                if (item == null || item.getAmount() <= 0) continue;
+                long fingerprint = adapter.getPersistentLong(item, ItemFingerprints.getKey());
+                if (fingerprint == ItemFingerprints.none) continue;
+                int index = table.indexOf(fingerprint);
+                if (index >= 0) counts[index] += item.getAmount();
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the index of the registered item in every slot of an inventory
+     *
+     * @param inventory the inventory
+     * @return the index of every slot, -1 for empty slots and other items
+     */
+    @NotNull
+    public int[] indexAll(@NotNull Inventory inventory) {
+        Table table = this.table;
+        long[] fingerprints = ItemFingerprints.readAll(inventory);
+        int[] indexes = new int[fingerprints.length];
+        for (int i = 0; i < fingerprints.length; i++) {
+            indexes[i] = fingerprints[i] == ItemFingerprints.none ? -1 : table.indexOf(fingerprints[i]);
+        }
+        return indexes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(Table table, int index) {
+        return (V) table.values[index];
+    }
+
+    // Keys are fingerprints, slots hold the index plus one so that 0 is empty
+    private static final class Table {
+        private final long[] keys;
+        private final int[] slots;
+        private final int mask;
+        private final long[] fingerprints;
+        private final Object[] values;
+
+        private Table(int capacity, long[] fingerprints, Object[] values) {
+            this.keys = new long[capacity];
+            this.slots = new int[capacity];
+            this.mask = capacity - 1;
+            this.fingerprints = fingerprints;
+            this.values = values;
+            for (int i = 0; i < fingerprints.length; i++) {
+                int slot = hash(fingerprints[i]) & mask;
+                while (slots[slot] != 0) slot = (slot + 1) & mask;
+                keys[slot] = fingerprints[i];
+                slots[slot] = i + 1;
+            }
+        }
+
+        private int indexOf(long fingerprint) {
+            for (int slot = hash(fingerprint) & mask; ; slot = (slot + 1) & mask) {
+                int index = slots[slot];
+                if (index == 0) return -1;
+                if (keys[slot] == fingerprint) return index - 1;
+            }
+        }
+
+        private static int hash(long fingerprint) {
+            return (int) (fingerprint ^ (fingerprint >>> 32));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package top.shjibi.plugineer.data;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.shjibi.plugineer.nms.VersionAdapter;
+import top.shjibi.plugineer.nms.VersionAdapters;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>Fingerprints of custom items, a long derived from the id of the item and stored in its persistent data.
+ * <br>Reading a fingerprint goes through {@link VersionAdapter#getPersistentLong}, which reads the item's tag without copying its meta on supported servers.
+ * Items without a fingerprint read as {@link #none}.
+ * </p>
+ */
+public final class ItemFingerprints {
+
+    private ItemFingerprints() {
+    }
+
+    /**
+     * The fingerprint of items that have none
+     */
+    public static final long none = 0;
+
+    @SuppressWarnings("deprecation")
+    private static final NamespacedKey key = new NamespacedKey("plugineer", "fingerprint");
+
+    /**
+     * Gets the key fingerprints are stored under
+     */
+    @NotNull
+    public static NamespacedKey getKey() {
+        return key;
+    }
+
+    /**
+     * Derives the fingerprint of an id, the same on every server and restart
+     *
+     * @param id the id of the item, include the name of your plugin to avoid clashing with other plugins
+     * @return the fingerprint, never {@link #none}
+     */
+    public static long of(@NotNull String id) {
+        Preconditions.checkNotNull(id, "'id' cannot be null!");
+        // FNV-1a over the UTF-8 bytes, then mixed so that close ids spread over every bit
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : id.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == none ? 1 : hash;
+    }
+
+    /**
+     * Stores a fingerprint in a container
+     *
+     * @param container   the container, like the one of an item meta
+     * @param fingerprint the fingerprint
+     */
+    public static void write(@NotNull PersistentDataContainer container, long fingerprint) {
+        Preconditions.checkArgument(fingerprint != none, "A fingerprint cannot be %s", none);
+        container.set(key, PersistentDataType.LONG, fingerprint);
+    }
+
+    /**
+     * Reads the fingerprint of an item
+     *
+     * @param item the item, may be null or air
+     * @return the fingerprint, or {@link #none}
+     */
+    public static long read(@Nullable ItemStack item) {
+        if (item == null || item.getAmount() <= 0) return none;
+        return VersionAdapters.get().getPersistentLong(item, key);
+    }
+
+    /**
+     * Reads the fingerprint of every slot of an inventory
+     *
+     * @param inventory the inventory
+     * @return the fingerprint of every slot, {@link #none} for empty slots and other items
+     */
+    @NotNull
+    public static long[] readAll(@NotNull Inventory inventory) {
+        ItemStack[] contents = inventory.getContents();
+        VersionAdapter adapter = VersionAdapters.get();
+        long[] fingerprints = new long[contents.length];
+        for (int i = 0; i < contents.length; i++) {
+            ItemStack item = contents[i];
+            if (item != null && item.getAmount() > 0) fingerprints[i] = adapter.getPersistentLong(item, key);
+        }
+        return fingerprints;
+    }
+}
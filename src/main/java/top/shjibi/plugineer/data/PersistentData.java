@@ -0,0 +1,25 @@
+package top.shjibi.plugineer.data;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Information of a record stored by {@link DataCodecs}, records without it use the default values
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface PersistentData {
+    /**
+     * The key the record is stored under, either {@code namespace:key} or just {@code key} to use the namespace of the plugin that provides the record.
+     * <br>The lower case simple name of the record by default
+     */
+    String key() default "";
+
+    /**
+     * Version of the record's schema, stored with every value and passed to {@link DataCodec#decode}.
+     * <br>Components may only be added at the end of a record, values of older versions get the default value for them
+     */
+    int version() default 1;
+}
@@ -0,0 +1,257 @@
+package top.shjibi.plugineer.data;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * <p>The codec of a record, made from its components.
+ * <br>A value is the count of its components followed by each of them, in order, without names or tags.
+ * Components read past the stored count get their default value, and stored components past the record's count are ignored, so components can be added at the end of a record.
+ * <br>A nested record is written with its own version and length, so it's decoded with the version it was stored with and its unknown components are skipped too.
+ * </p>
+ */
+final class RecordCodec<T> implements DataCodec<T> {
+
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    @NotNull
+    private final Class<T> type;
+    private final int version;
+    @NotNull
+    private final Component[] components;
+    // Takes every component as an array
+    @NotNull
+    private final MethodHandle constructor;
+    @Nullable
+    private volatile NamespacedKey key;
+
+    private RecordCodec(Class<T> type, int version, Component[] components, MethodHandle constructor) {
+        this.type = type;
+        this.version = version;
+        this.components = components;
+        this.constructor = constructor;
+    }
+
+    static <T> RecordCodec<T> of(@NotNull Class<T> type) {
+        if (!type.isRecord()) throw new IllegalArgumentException(type.getName() + " is not a record");
+        PersistentData info = type.getAnnotation(PersistentData.class);
+        RecordComponent[] recordComponents = type.getRecordComponents();
+        Component[] components = new Component[recordComponents.length];
+        Class<?>[] parameters = new Class<?>[recordComponents.length];
+        try {
+            for (int i = 0; i < recordComponents.length; i++) {
+                components[i] = new Component(recordComponents[i]);
+                parameters[i] = recordComponents[i].getType();
+            }
+            Constructor<T> canonical = type.getDeclaredConstructor(parameters);
+            canonical.setAccessible(true);
+            MethodHandle constructor = lookup.unreflectConstructor(canonical)
+                    .asSpreader(Object[].class, parameters.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            return new RecordCodec<>(type, info == null ? 1 : info.version(), components, constructor);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot make the codec of " + type.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    @NotNull
+    @Override
+    public NamespacedKey getKey() {
+        NamespacedKey key = this.key;
+        if (key == null) this.key = key = resolveKey();
+        return key;
+    }
+
+    @SuppressWarnings("deprecation")
+    private NamespacedKey resolveKey() {
+        PersistentData info = type.getAnnotation(PersistentData.class);
+        String name = info == null || info.key().isEmpty() ? type.getSimpleName() : info.key();
+        name = name.toLowerCase(Locale.ROOT);
+        int colon = name.indexOf(':');
+        if (colon >= 0) return new NamespacedKey(name.substring(0, colon), name.substring(colon + 1));
+        return new NamespacedKey(JavaPlugin.getProvidingPlugin(type), name);
+    }
+
+    @Override
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public void encode(@NotNull T value, @NotNull DataOutput out) throws IOException {
+        DataCodecs.writeVarInt(out, components.length);
+        for (Component component : components) {
+            component.write(out, component.get(value));
+        }
+    }
+
+    @NotNull
+    @Override
+    public T decode(@NotNull ByteBuffer in, int version) {
+        int count = DataCodecs.readVarInt(in);
+        Object[] values = new Object[components.length];
+        for (int i = 0; i < components.length; i++) {
+            values[i] = i < count ? components[i].read(in) : components[i].defaultValue;
+        }
+        try {
+            return type.cast((Object) constructor.invokeExact(values));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalArgumentException("Cannot create " + type.getName(), t);
+        }
+    }
+
+    private enum Kind {
+        BOOLEAN, BYTE, SHORT, CHAR, INT, LONG, FLOAT, DOUBLE, STRING, UUID, ENUM, BYTES, RECORD
+    }
+
+    private static final class Component {
+        private final String name;
+        private final Class<?> type;
+        private final Kind kind;
+        // Whether a presence byte comes first, for every reference but strings which encode null in their length
+        private final boolean nullable;
+        @Nullable
+        private final Object defaultValue;
+        private final MethodHandle accessor;
+        @Nullable
+        private final RecordCodec<?> nested;
+
+        private Component(RecordComponent component) throws IllegalAccessException {
+            name = component.getName();
+            type = component.getType();
+            kind = kindOf(type);
+            if (kind == null) throw new IllegalArgumentException("unsupported type " + type.getName() + " of " + name);
+            nullable = !type.isPrimitive() && kind != Kind.STRING && kind != Kind.ENUM && kind != Kind.BYTES;
+            defaultValue = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+            Method method = component.getAccessor();
+            method.setAccessible(true);
+            accessor = lookup.unreflect(method).asType(MethodType.methodType(Object.class, Object.class));
+            nested = kind == Kind.RECORD ? RecordCodec.of(type) : null;
+        }
+
+        @Nullable
+        private static Kind kindOf(Class<?> type) {
+            if (type == boolean.class || type == Boolean.class) return Kind.BOOLEAN;
+            if (type == byte.class || type == Byte.class) return Kind.BYTE;
+            if (type == short.class || type == Short.class) return Kind.SHORT;
+            if (type == char.class || type == Character.class) return Kind.CHAR;
+            if (type == int.class || type == Integer.class) return Kind.INT;
+            if (type == long.class || type == Long.class) return Kind.LONG;
+            if (type == float.class || type == Float.class) return Kind.FLOAT;
+            if (type == double.class || type == Double.class) return Kind.DOUBLE;
+            if (type == String.class) return Kind.STRING;
+            if (type == UUID.class) return Kind.UUID;
+            if (type == byte[].class) return Kind.BYTES;
+            if (type.isEnum()) return Kind.ENUM;
+            if (type.isRecord()) return Kind.RECORD;
+            return null;
+        }
+
+        private Object get(Object owner) throws IOException {
+            try {
+                return (Object) accessor.invokeExact(owner);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IOException("Cannot get " + name, t);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void write(DataOutput out, Object value) throws IOException {
+            if (nullable) {
+                out.writeBoolean(value != null);
+                if (value == null) return;
+            }
+            switch (kind) {
+                case BOOLEAN -> out.writeBoolean((Boolean) value);
+                case BYTE -> out.writeByte((Byte) value);
+                case SHORT, INT, LONG -> DataCodecs.writeVarLong(out, ((Number) value).longValue());
+                case CHAR -> DataCodecs.writeVarInt(out, (Character) value);
+                case FLOAT -> out.writeFloat((Float) value);
+                case DOUBLE -> out.writeDouble((Double) value);
+                case STRING -> DataCodecs.writeString(out, (String) value);
+                case UUID -> {
+                    out.writeLong(((UUID) value).getMostSignificantBits());
+                    out.writeLong(((UUID) value).getLeastSignificantBits());
+                }
+                case ENUM -> DataCodecs.writeString(out, value == null ? null : ((Enum<?>) value).name());
+                case BYTES -> {
+                    byte[] bytes = (byte[]) value;
+                    DataCodecs.writeVarInt(out, bytes == null ? 0 : bytes.length + 1);
+                    if (bytes != null) out.write(bytes);
+                }
+                case RECORD -> {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+                    ((RecordCodec<Object>) nested).encode(value, new DataOutputStream(bytes));
+                    DataCodecs.writeVarInt(out, nested.getVersion());
+                    DataCodecs.writeVarInt(out, bytes.size());
+                    out.write(bytes.toByteArray());
+                }
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object read(ByteBuffer in) {
+            if (nullable && in.get() == 0) return null;
+            return switch (kind) {
+                case BOOLEAN -> in.get() != 0;
+                case BYTE -> in.get();
+                case SHORT -> (short) DataCodecs.readVarLong(in);
+                case INT -> (int) DataCodecs.readVarLong(in);
+                case LONG -> DataCodecs.readVarLong(in);
+                case CHAR -> (char) DataCodecs.readVarInt(in);
+                case FLOAT -> in.getFloat();
+                case DOUBLE -> in.getDouble();
+                case STRING -> DataCodecs.readString(in);
+                case UUID -> new UUID(in.getLong(), in.getLong());
+                case ENUM -> {
+                    String constant = DataCodecs.readString(in);
+                    // A removed constant reads as null
+                    try {
+                        yield constant == null ? null : Enum.valueOf((Class) type, constant);
+                    } catch (IllegalArgumentException e) {
+                        yield null;
+                    }
+                }
+                case BYTES -> {
+                    int length = DataCodecs.readVarInt(in) - 1;
+                    if (length < 0) yield null;
+                    if (length > in.remaining()) throw new BufferUnderflowException();
+                    byte[] bytes = new byte[length];
+                    in.get(bytes);
+                    yield bytes;
+                }
+                case RECORD -> {
+                    int version = DataCodecs.readVarInt(in);
+                    int length = DataCodecs.readVarInt(in);
+                    if (length < 0 || length > in.remaining()) throw new BufferUnderflowException();
+                    ByteBuffer value = in.slice();
+                    value.limit(length);
+                    in.position(in.position() + length);
+                    yield nested.decode(value, version);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package top.shjibi.plugineer.menu;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.shjibi.plugineer.util.ItemTemplate;
+import top.shjibi.plugineer.util.StringUtil;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * <p>The layout of a chest menu, every slot bound to an {@link ItemTemplate}, a supplier or a function of the viewer.
+ * <br>A menu without functions of the viewer is shared: every player looking at it sees the same {@link MenuView}, rendered once.
+ * Otherwise every player gets their own view.
+ * <br>Open menus with {@link MenuManager#open}, and call {@link MenuManager#refresh} when what the slots show changes.
+ * </p>
+ */
+public final class Menu {
+
+    @NotNull
+    private final String title;
+    @NotNull
+    private final Slot[] slots;
+    @NotNull
+    private final MenuClickHandler[] handlers;
+    private int personalSlots;
+
+    private Menu(int rows, String title) {
+        this.title = StringUtil.color(title);
+        this.slots = new Slot[rows * 9];
+        this.handlers = new MenuClickHandler[rows * 9];
+    }
+
+    /**
+     * Gets an empty menu
+     *
+     * @param rows  row count of the menu, from 1 to 6
+     * @param title the title, colored with {@link StringUtil#color}
+     * @return A menu
+     */
+    @NotNull
+    public static Menu of(int rows, @NotNull String title) {
+        Preconditions.checkArgument(rows >= 1 && rows <= 6, "A menu has from 1 to 6 rows, got %s", rows);
+        Preconditions.checkNotNull(title, "'title' cannot be null!");
+        return new Menu(rows, title);
+    }
+
+    /**
+     * Shows an item that never changes in a slot
+     *
+     * @param slot     the slot
+     * @param template the template of the item, created once per view
+     * @return The modified {@link Menu}
+     */
+    @NotNull
+    public Menu set(int slot, @NotNull ItemTemplate template) {
+        Preconditions.checkNotNull(template, "'template' cannot be null!");
+        return bind(slot, new Slot(template, null, null));
+    }
+
+    /**
+     * Shows a supplied item in a slot, supplied again on every refresh
+     *
+     * @param slot     the slot
+     * @param supplier the supplier of the item, which may supply null for an empty slot
+     * @return The modified {@link Menu}
+     */
+    @NotNull
+    public Menu set(int slot, @NotNull Supplier<? extends ItemStack> supplier) {
+        Preconditions.checkNotNull(supplier, "'supplier' cannot be null!");
+        return bind(slot, new Slot(null, supplier, null));
+    }
+
+    /**
+     * Shows an item of the viewer in a slot, this makes every viewer get their own view
+     *
+     * @param slot     the slot
+     * @param function the function that gets the item of the viewer, which may return null for an empty slot
+     * @return The modified {@link Menu}
+     */
+    @NotNull
+    public Menu setPersonal(int slot, @NotNull Function<? super Player, ? extends ItemStack> function) {
+        Preconditions.checkNotNull(function, "'function' cannot be null!");
+        return bind(slot, new Slot(null, null, function));
+    }
+
+    /**
+     * Handles clicks on a slot
+     *
+     * @param slot    the slot
+     * @param handler the handler, or null to remove it
+     * @return The modified {@link Menu}
+     */
+    @NotNull
+    public Menu onClick(int slot, @Nullable MenuClickHandler handler) {
+        Preconditions.checkElementIndex(slot, handlers.length, "slot");
+        handlers[slot] = handler;
+        return this;
+    }
+
+    private Menu bind(int slot, Slot binding) {
+        Preconditions.checkElementIndex(slot, slots.length, "slot");
+        if (slots[slot] != null && slots[slot].personal != null) personalSlots--;
+        if (binding.personal != null) personalSlots++;
+        slots[slot] = binding;
+        return this;
+    }
+
+    /**
+     * Gets the title of the menu, colored
+     */
+    @NotNull
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Gets the slot count of the menu
+     */
+    public int getSize() {
+        return slots.length;
+    }
+
+    /**
+     * Gets whether every viewer sees the same view
+     */
+    public boolean isShared() {
+        return personalSlots == 0;
+    }
+
+    /**
+     * Gets whether a slot changes between refreshes
+     */
+    boolean isDynamic(int slot) {
+        return slots[slot] != null && slots[slot].template == null;
+    }
+
+    /**
+     * Renders a slot for a viewer
+     *
+     * @param slot   the slot
+     * @param viewer the viewer, null for shared views
+     * @return the item, or null for an empty slot
+     */
+    @Nullable
+    ItemStack render(int slot, @Nullable Player viewer) {
+        Slot binding = slots[slot];
+        if (binding == null) return null;
+        if (binding.template != null) return binding.template.create();
+        if (binding.supplier != null) return binding.supplier.get();
+        return viewer == null ? null : binding.personal.apply(viewer);
+    }
+
+    @Nullable
+    MenuClickHandler getHandler(int slot) {
+        return handlers[slot];
+    }
+
+    private static final class Slot {
+        @Nullable
+        private final ItemTemplate template;
+        @Nullable
+        private final Supplier<? extends ItemStack> supplier;
+        @Nullable
+        private final Function<? super Player, ? extends ItemStack> personal;
+
+        private Slot(ItemTemplate template, Supplier<? extends ItemStack> supplier, Function<? super Player, ? extends ItemStack> personal) {
+            this.template = template;
+            this.supplier = supplier;
+            this.personal = personal;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package top.shjibi.plugineer.menu;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Handles a click on a slot of a {@link Menu}, the click itself is always cancelled
+ */
+@FunctionalInterface
+public interface MenuClickHandler {
+
+    /**
+     * Called on the main thread when a player clicks the slot
+     *
+     * @param player the player who clicked
+     * @param click  the type of the click
+     * @param view   the view the player clicked in
+     */
+    void onClick(@NotNull Player player, @NotNull ClickType click, @NotNull MenuView view);
+}
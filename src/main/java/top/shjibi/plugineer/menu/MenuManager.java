@@ -0,0 +1,231 @@
+package top.shjibi.plugineer.menu;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * <p>Opens {@link Menu}s and handles the clicks in them.
+ * <br>Shared menus have one {@link MenuView} for every viewer, other menus have one per viewer. A view is dropped when its last viewer closes it.
+ * <br>Refreshed views are rendered once per tick, between two ticks. Everything here runs on the main thread.
+ * <br>Every plugin has its own manager, which shuts down when the plugin is disabled.
+ * </p>
+ */
+public final class MenuManager implements Listener {
+
+    private MenuManager(@NotNull JavaPlugin plugin) {
+        Preconditions.checkNotNull(plugin, "'plugin' cannot be null!");
+        this.plugin = plugin;
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::renderQueued, 1L, 1L);
+    }
+
+    private static final Map<JavaPlugin, MenuManager> managers = new ConcurrentHashMap<>();
+    @NotNull
+    private final JavaPlugin plugin;
+    @NotNull
+    private final Map<Menu, MenuView> sharedViews = new IdentityHashMap<>();
+    @NotNull
+    private final Map<Menu, List<MenuView>> views = new IdentityHashMap<>();
+    @NotNull
+    private List<MenuView> queued = new ArrayList<>();
+    @Nullable
+    private BukkitTask task;
+
+    /**
+     * Gets or create the only instance of {@link MenuManager} for a plugin, which registers its listener and starts rendering every tick.
+     *
+     * @return the instance of {@link MenuManager} for a plugin
+     */
+    @NotNull
+    public static MenuManager get(@NotNull JavaPlugin plugin) {
+        Preconditions.checkNotNull(plugin, "'plugin' cannot be null!");
+        MenuManager manager = managers.get(plugin);
+        if (manager != null) return manager;
+        return managers.computeIfAbsent(plugin, MenuManager::new);
+    }
+
+    /**
+     * Opens a menu to a player
+     *
+     * @param p    the player
+     * @param menu the menu
+     * @return the view the player looks at, or null if the menu wasn't opened, like when another plugin cancelled it
+     */
+    @Nullable
+    public MenuView open(@NotNull Player p, @NotNull Menu menu) {
+        Preconditions.checkNotNull(p, "'p' cannot be null!");
+        Preconditions.checkNotNull(menu, "'menu' cannot be null!");
+        MenuView view = menu.isShared() ? sharedViews.get(menu) : null;
+        boolean created = view == null;
+        if (created) view = new MenuView(this, menu, menu.isShared() ? null : p);
+
+        InventoryView opened = p.openInventory(view.getInventory());
+        if (opened == null || opened.getTopInventory().getHolder() != view) {
+            // A view is only kept while somebody looks at it
+            return null;
+        }
+        // Opening closes the previous inventory first, which drops a shared view if it was the one being reopened
+        List<MenuView> menuViews = views.computeIfAbsent(menu, m -> new ArrayList<>());
+        if (created || !menuViews.contains(view)) menuViews.add(view);
+        if (menu.isShared()) sharedViews.put(menu, view);
+        return view;
+    }
+
+    /**
+     * Refreshes every open view of a menu, they are rendered on the next tick
+     *
+     * @param menu the menu
+     */
+    public void refresh(@NotNull Menu menu) {
+        List<MenuView> menuViews = views.get(menu);
+        if (menuViews == null) return;
+        for (MenuView view : menuViews) {
+            view.refresh();
+        }
+    }
+
+    /**
+     * Refreshes a slot of every open view of a menu, it is rendered on the next tick
+     *
+     * @param menu the menu
+     * @param slot the slot
+     */
+    public void refresh(@NotNull Menu menu, int slot) {
+        List<MenuView> menuViews = views.get(menu);
+        if (menuViews == null) return;
+        for (MenuView view : menuViews) {
+            view.refresh(slot);
+        }
+    }
+
+    /**
+     * Gets every open view of a menu
+     */
+    @NotNull
+    public List<MenuView> getViews(@NotNull Menu menu) {
+        List<MenuView> menuViews = views.get(menu);
+        return menuViews == null ? List.of() : List.copyOf(menuViews);
+    }
+
+    void queue(@NotNull MenuView view) {
+        queued.add(view);
+    }
+
+    private void renderQueued() {
+        if (queued.isEmpty()) return;
+        List<MenuView> rendering = queued;
+        queued = new ArrayList<>();
+        for (MenuView view : rendering) {
+            try {
+                view.render();
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "Cannot render menu: " + view.getMenu().getTitle(), e);
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onInventoryClick(InventoryClickEvent e) {
+        MenuView view = getView(e.getView().getTopInventory());
+        if (view == null) return;
+        e.setCancelled(true);
+
+        int slot = e.getRawSlot();
+        if (slot < 0 || slot >= view.getMenu().getSize() || !(e.getWhoClicked() instanceof Player)) return;
+        MenuClickHandler handler = view.getMenu().getHandler(slot);
+        if (handler != null) handler.onClick((Player) e.getWhoClicked(), e.getClick(), view);
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onInventoryDrag(InventoryDragEvent e) {
+        MenuView view = getView(e.getView().getTopInventory());
+        if (view == null) return;
+        for (int slot : e.getRawSlots()) {
+            if (slot < view.getMenu().getSize()) {
+                e.setCancelled(true);
+                return;
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(InventoryCloseEvent e) {
+        MenuView view = getView(e.getInventory());
+        if (view == null) return;
+        HumanEntity closer = e.getPlayer();
+        // The closing player is still a viewer during the event
+        for (HumanEntity viewer : view.getInventory().getViewers()) {
+            if (viewer != closer) return;
+        }
+
+        Menu menu = view.getMenu();
+        if (sharedViews.get(menu) == view) sharedViews.remove(menu);
+        List<MenuView> menuViews = views.get(menu);
+        if (menuViews != null && menuViews.remove(view) && menuViews.isEmpty()) views.remove(menu);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent e) {
+        if (e.getPlugin() == plugin) shutdown();
+    }
+
+    @Nullable
+    private MenuView getView(@Nullable Inventory inventory) {
+        if (inventory == null || !(inventory.getHolder() instanceof MenuView)) return null;
+        MenuView view = (MenuView) inventory.getHolder();
+        return view.getManager() == this ? view : null;
+    }
+
+    /**
+     * Stops rendering every tick and closes every open menu, the next call to {@link #get} creates a new manager
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (List<MenuView> menuViews : new ArrayList<>(views.values())) {
+            for (MenuView view : new ArrayList<>(menuViews)) {
+                for (HumanEntity viewer : new ArrayList<>(view.getInventory().getViewers())) {
+                    viewer.closeInventory();
+                }
+            }
+        }
+        views.clear();
+        sharedViews.clear();
+        queued.clear();
+        HandlerList.unregisterAll(this);
+        managers.remove(plugin, this);
+    }
+
+    /**
+     * Gets the plugin that this manager works with.
+     */
+    @NotNull
+    public JavaPlugin getPlugin() {
+        return plugin;
+    }
+}
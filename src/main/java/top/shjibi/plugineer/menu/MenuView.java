@@ -0,0 +1,131 @@
+package top.shjibi.plugineer.menu;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+
+/**
+ * <p>A rendered {@link Menu}, the inventory that players look at.
+ * <br>The view keeps the item it last rendered in every slot, and only sets the slots whose item changed, so the server only sends those slots to the viewers.
+ * Items that never change are rendered once.
+ * <br>Refreshes are rendered once per tick by the {@link MenuManager}, however many were requested.
+ * </p>
+ */
+public final class MenuView implements InventoryHolder {
+
+    @NotNull
+    private final MenuManager manager;
+    @NotNull
+    private final Menu menu;
+    @Nullable
+    private final Player owner;
+    @NotNull
+    private final Inventory inventory;
+    @NotNull
+    private final ItemStack[] rendered;
+    // Slots to render on the next tick
+    @NotNull
+    private final BitSet dirty = new BitSet();
+    private boolean queued;
+    private long updatedSlots;
+
+    MenuView(@NotNull MenuManager manager, @NotNull Menu menu, @Nullable Player owner) {
+        this.manager = manager;
+        this.menu = menu;
+        this.owner = owner;
+        this.inventory = Bukkit.createInventory(this, menu.getSize(), menu.getTitle());
+        this.rendered = new ItemStack[menu.getSize()];
+        for (int slot = 0; slot < rendered.length; slot++) {
+            update(slot, menu.render(slot, owner));
+        }
+    }
+
+    /**
+     * Renders every slot that changes on the next tick
+     */
+    public void refresh() {
+        for (int slot = 0; slot < rendered.length; slot++) {
+            if (menu.isDynamic(slot)) dirty.set(slot);
+        }
+        queue();
+    }
+
+    /**
+     * Renders a slot on the next tick
+     *
+     * @param slot the slot
+     */
+    public void refresh(int slot) {
+        Preconditions.checkElementIndex(slot, rendered.length, "slot");
+        dirty.set(slot);
+        queue();
+    }
+
+    private void queue() {
+        if (queued) return;
+        queued = true;
+        manager.queue(this);
+    }
+
+    /**
+     * Renders the slots that were refreshed, called once per tick by the manager
+     */
+    void render() {
+        queued = false;
+        for (int slot = dirty.nextSetBit(0); slot >= 0; slot = dirty.nextSetBit(slot + 1)) {
+            update(slot, menu.render(slot, owner));
+        }
+        dirty.clear();
+    }
+
+    private void update(int slot, ItemStack item) {
+        ItemStack last = rendered[slot];
+        if (last == item || (last != null && last.equals(item))) return;
+        rendered[slot] = item == null ? null : item.clone();
+        inventory.setItem(slot, item);
+        updatedSlots++;
+    }
+
+    @NotNull
+    MenuManager getManager() {
+        return manager;
+    }
+
+    /**
+     * Gets the menu this view renders
+     */
+    @NotNull
+    public Menu getMenu() {
+        return menu;
+    }
+
+    /**
+     * Gets the player this view belongs to
+     *
+     * @return the player, or null if the view is shared
+     */
+    @Nullable
+    public Player getOwner() {
+        return owner;
+    }
+
+    /**
+     * Gets how many times a slot has been set, since the view was created
+     */
+    public long getUpdatedSlotCount() {
+        return updatedSlots;
+    }
+
+    @NotNull
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+}
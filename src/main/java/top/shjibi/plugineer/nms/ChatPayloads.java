@@ -0,0 +1,113 @@
+package top.shjibi.plugineer.nms;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.shjibi.plugineer.util.StringUtil;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * <p>Builds chat packets once and shares them between recipients.
+ * <br>A message is colored with {@link StringUtil#color} and turned into chat packets once by the {@link VersionAdapter} of the server, the same immutable packets are then sent to every recipient.
+ * Only the coloring, the components and the packet objects are shared, each connection still serializes the packets when it encodes them.
+ * Packets of recently broadcast messages are kept in a bounded cache, keyed by the message.
+ * <br>On servers where the chat packet cannot be built, messages are sent with {@link Player#sendMessage} instead.
+ * </p>
+ */
+public final class ChatPayloads {
+
+    private ChatPayloads() {
+    }
+
+    private static final int maxCachedMessages = 512;
+    private static final Object[] unsupported = new Object[0];
+
+    private static final Cache<String, Object[]> cache = CacheBuilder.newBuilder()
+            .maximumSize(maxCachedMessages)
+            .build();
+
+    /**
+     * Gets the chat packets of a message, one for each line, building them if they aren't cached
+     *
+     * @param message the message, colored here
+     * @return the packets, or null if chat packets cannot be built on this server
+     */
+    @Nullable
+    public static Object[] getPackets(@NotNull String message) {
+        Object[] packets = getCached(message);
+        return packets == unsupported ? null : packets.clone();
+    }
+
+    /**
+     * Sends a message to every recipient, its packets are built once
+     *
+     * @param recipients the players to send the message to
+     * @param message    the message, colored here
+     */
+    public static void broadcast(@NotNull Collection<? extends Player> recipients, @NotNull String message) {
+        Object[] packets = getCached(message);
+        if (packets == unsupported) {
+            String colored = StringUtil.color(message);
+            for (Player p : recipients) {
+                p.sendMessage(colored);
+            }
+            return;
+        }
+        VersionAdapter adapter = VersionAdapters.get();
+        List<Object> batch = Arrays.asList(packets);
+        for (Player p : recipients) {
+            adapter.sendPackets(p, batch);
+        }
+    }
+
+    /**
+     * Queues a message to every recipient in a {@link PacketBatcher}, its packets are built once
+     *
+     * @param batcher    the batcher to queue the packets in
+     * @param recipients the players to send the message to
+     * @param message    the message, colored here
+     */
+    public static void broadcast(@NotNull PacketBatcher batcher, @NotNull Collection<? extends Player> recipients, @NotNull String message) {
+        Object[] packets = getCached(message);
+        if (packets == unsupported) {
+            broadcast(recipients, message);
+            return;
+        }
+        for (Object packet : packets) {
+            batcher.queue(recipients, packet);
+        }
+    }
+
+    /**
+     * Removes every cached packet
+     */
+    public static void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static Object[] getCached(String message) {
+        Object[] packets = cache.getIfPresent(message);
+        if (packets == null) {
+            packets = build(message);
+            cache.put(message, packets);
+        }
+        return packets;
+    }
+
+    private static Object[] build(String message) {
+        try {
+            Object[] packets = VersionAdapters.get().createChatPackets(StringUtil.color(message));
+            return packets == null ? unsupported : packets;
+        } catch (RuntimeException | LinkageError e) {
+            Bukkit.getLogger().log(Level.WARNING, "Cannot build the chat packet of: " + message, e);
+            return unsupported;
+        }
+    }
+}
@@ -0,0 +1,481 @@
+package top.shjibi.plugineer.nms;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * <p>A registry of NMS and CraftBukkit classes and members.
+ * <br>Every class and member is resolved once, into a {@link MethodHandle} for members, and the result is cached, failures included. A failure is logged once, when it's first resolved.
+ * <br>The typed invokers, like {@link #sendPacket}, resolve their members once per runtime class, so they do no reflective lookup after the first call.
+ * </p>
+ */
+public final class NMSAccessors {
+
+    private NMSAccessors() {
+    }
+
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    private static final MethodType getterType = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType senderType = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final Map<String, Optional<Class<?>>> classes = new ConcurrentHashMap<>();
+    private static final Map<MemberKey, Optional<MethodHandle>> members = new ConcurrentHashMap<>();
+
+    @Nullable
+    private static volatile String version;
+
+    private static final ClassValue<Optional<MethodHandle>> handleGetters = new ClassValue<>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(@NotNull Class<?> type) {
+            return Optional.ofNullable(findMethod(type, "getHandle")).map(handle -> handle.asType(getterType));
+        }
+    };
+
+    private static final ClassValue<Optional<MethodHandle>> connectionGetters = new ClassValue<>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(@NotNull Class<?> type) {
+            return Optional.ofNullable(findGetter(type, "b")).map(handle -> handle.asType(getterType));
+        }
+    };
+
+    // Gets the netty channel of a connection, through the network manager that the connection holds
+    private static final ClassValue<Optional<MethodHandle>> channelGetters = new ClassValue<>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(@NotNull Class<?> type) {
+            Class<?> channelClass = Channel.type;
+            if (channelClass == null) return Optional.empty();
+            try {
+                for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                    for (Field field : c.getDeclaredFields()) {
+                        if (field.getType().isPrimitive() || field.getType().isArray()) continue;
+                        Field channelField = findFieldOfType(field.getType(), channelClass);
+                        if (channelField == null) continue;
+                        field.setAccessible(true);
+                        channelField.setAccessible(true);
+                        return Optional.of(MethodHandles.filterReturnValue(
+                                lookup.unreflectGetter(field).asType(getterType),
+                                lookup.unreflectGetter(channelField).asType(getterType)));
+                    }
+                }
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                Bukkit.getLogger().log(Level.WARNING, "Cannot find the channel of " + type.getName() + "!", e);
+                return Optional.empty();
+            }
+            Bukkit.getLogger().log(Level.WARNING, "Cannot find the channel of " + type.getName() + "!");
+            return Optional.empty();
+        }
+    };
+
+    private static final ClassValue<Optional<MethodHandle>> packetSenders = new ClassValue<>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(@NotNull Class<?> type) {
+            Class<?> packetClass = PacketClass.value;
+            if (packetClass == null) return Optional.empty();
+            return Optional.ofNullable(findMethod(type, "a", packetClass)).map(handle -> handle.asType(senderType));
+        }
+    };
+
+    private static final ClassValue<Optional<MethodHandle>> disconnectGetters = new ClassValue<>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(@NotNull Class<?> type) {
+            return Optional.ofNullable(findGetter(type, "processedDisconnect")).map(handle -> handle.asType(MethodType.methodType(boolean.class, Object.class)));
+        }
+    };
+
+    // Matched by simple name, which is the same under Spigot's and Mojang's class names
+    private static final Set<String> connectionHandledPackets = Set.of(
+            "PacketPlayOutChat", "ClientboundSystemChatPacket", "ClientboundPlayerChatPacket",
+            "PacketPlayOutSpawnPosition", "ClientboundSetDefaultSpawnPositionPacket");
+
+    private static final ClassValue<Boolean> connectionHandled = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(@NotNull Class<?> type) {
+            return connectionHandledPackets.contains(type.getSimpleName());
+        }
+    };
+
+    /**
+     * Gets the version of Minecraft that the server is running on, computed once
+     */
+    @NotNull
+    public static String getVersion() {
+        String version = NMSAccessors.version;
+        if (version == null) {
+            String packageName = Bukkit.getServer().getClass().getPackage().getName();
+            NMSAccessors.version = version = packageName.substring(packageName.lastIndexOf(".") + 1);
+        }
+        return version;
+    }
+
+    /**
+     * Gets a class by its fully qualified name
+     *
+     * @param name the fully qualified name of the class
+     * @return the class, or null if it doesn't exist
+     */
+    @Nullable
+    public static Class<?> getClass(@NotNull String name) {
+        return classes.computeIfAbsent(name, NMSAccessors::loadClass).orElse(null);
+    }
+
+    /**
+     * Gets a class in net.minecraft package
+     */
+    @Nullable
+    public static Class<?> getNMClass(@NotNull String name) {
+        return getClass("net.minecraft." + name);
+    }
+
+    /**
+     * Gets a NMS class
+     */
+    @Nullable
+    public static Class<?> getNMSClass(@NotNull String name) {
+        return getClass("net.minecraft.server." + getVersion() + "." + name);
+    }
+
+    /**
+     * Gets a CraftBukkit class
+     */
+    @Nullable
+    public static Class<?> getCraftBukkitClass(@NotNull String name) {
+        return getClass("org.bukkit.craftbukkit." + getVersion() + "." + name);
+    }
+
+    /**
+     * Finds a method, static or not, declared by the class or inherited by it
+     *
+     * @param owner      the class to look in
+     * @param name       name of the method
+     * @param parameters parameter types of the method
+     * @return a handle of the method, or null if it doesn't exist
+     */
+    @Nullable
+    public static MethodHandle findMethod(@NotNull Class<?> owner, @NotNull String name, @NotNull Class<?>... parameters) {
+        return members.computeIfAbsent(new MemberKey(owner, name, parameters, false), NMSAccessors::resolve).orElse(null);
+    }
+
+    /**
+     * Finds a getter of a field, static or not, declared by the class or inherited by it
+     *
+     * @param owner the class to look in
+     * @param name  name of the field
+     * @return a handle that gets the field, or null if it doesn't exist
+     */
+    @Nullable
+    public static MethodHandle findGetter(@NotNull Class<?> owner, @NotNull String name) {
+        return members.computeIfAbsent(new MemberKey(owner, name, new Class<?>[0], true), NMSAccessors::resolve).orElse(null);
+    }
+
+    /**
+     * Gets the NMS handle of a CraftBukkit object, like the NMS player of a {@link Player}
+     *
+     * @param craftObject the CraftBukkit object
+     * @return the NMS handle, or null if the object has no handle
+     */
+    @Nullable
+    public static Object getHandle(@NotNull Object craftObject) {
+        MethodHandle getter = handleGetters.get(craftObject.getClass()).orElse(null);
+        if (getter == null) return null;
+        try {
+            return (Object) getter.invokeExact(craftObject);
+        } catch (Throwable t) {
+            Bukkit.getLogger().log(Level.WARNING, "Cannot get the handle of " + craftObject.getClass().getSimpleName(), t);
+            return null;
+        }
+    }
+
+    /**
+     * Sends a packet to the player
+     *
+     * @param p      the player to send the packet to
+     * @param packet the NMS packet
+     * @return whether the packet was sent
+     */
+    public static boolean sendPacket(@NotNull Player p, @NotNull Object packet) {
+        Class<?> packetClass = PacketClass.value;
+        if (packetClass == null || !packetClass.isInstance(packet)) return false;
+        Object connection = getConnection(p);
+        return connection != null && sendThrough(connection, packet);
+    }
+
+    /**
+     * Gets whether the object is an NMS packet
+     */
+    static boolean isPacket(@NotNull Object packet) {
+        Class<?> packetClass = PacketClass.value;
+        return packetClass != null && packetClass.isInstance(packet);
+    }
+
+    /**
+     * Gets the connection of the player
+     *
+     * @param p the player
+     * @return the connection, or null if it cannot be found
+     */
+    @Nullable
+    static Object getConnection(@NotNull Player p) {
+        MethodHandle handleGetter = handleGetters.get(p.getClass()).orElse(null);
+        if (handleGetter == null) return null;
+        try {
+            Object entityPlayer = (Object) handleGetter.invokeExact((Object) p);
+            MethodHandle connectionGetter = connectionGetters.get(entityPlayer.getClass()).orElse(null);
+            return connectionGetter == null ? null : (Object) connectionGetter.invokeExact(entityPlayer);
+        } catch (Throwable t) {
+            Bukkit.getLogger().log(Level.WARNING, "Cannot get the connection of " + p.getName(), t);
+            return null;
+        }
+    }
+
+    /**
+     * Sends a packet through the connection, which applies its own handling of the packet
+     *
+     * @param connection the connection of a player
+     * @param packet     the NMS packet
+     * @return whether the packet was sent
+     */
+    static boolean sendThrough(@NotNull Object connection, @NotNull Object packet) {
+        Class<?> packetClass = PacketClass.value;
+        if (packetClass == null || !packetClass.isInstance(packet)) return false;
+        MethodHandle sender = packetSenders.get(connection.getClass()).orElse(null);
+        if (sender == null) return false;
+        try {
+            sender.invokeExact(connection, packet);
+            return true;
+        } catch (Throwable t) {
+            Bukkit.getLogger().log(Level.WARNING, "Cannot send packet: " + packet.getClass().getSimpleName(), t);
+            return false;
+        }
+    }
+
+    /**
+     * Gets whether the connection is being closed, CraftBukkit drops every packet sent to it from then on
+     */
+    static boolean isDisconnecting(@NotNull Object connection) {
+        MethodHandle getter = disconnectGetters.get(connection.getClass()).orElse(null);
+        if (getter == null) return false;
+        try {
+            return (boolean) getter.invokeExact(connection);
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets whether the connection handles the packet itself when it's sent, so it must not be written to the channel directly
+     * <br>The connection drops chat that the player's chat settings hide, and keeps the compass target of spawn positions.
+     */
+    static boolean isConnectionHandled(@NotNull Object packet) {
+        return connectionHandled.get(packet.getClass());
+    }
+
+    /**
+     * Gets the netty channel of a connection
+     *
+     * @param connection the connection of a player
+     * @return the channel, or null if it cannot be found
+     */
+    @Nullable
+    static Object getChannel(@NotNull Object connection) {
+        MethodHandle channelGetter = channelGetters.get(connection.getClass()).orElse(null);
+        if (channelGetter == null) return null;
+        try {
+            return (Object) channelGetter.invokeExact(connection);
+        } catch (Throwable t) {
+            Bukkit.getLogger().log(Level.WARNING, "Cannot get the channel of " + connection.getClass().getSimpleName(), t);
+            return null;
+        }
+    }
+
+    /**
+     * Writes a packet to a channel, without flushing it
+     *
+     * @param channel the netty channel
+     * @param packet  the NMS packet
+     * @return whether the packet was written
+     */
+    static boolean write(@NotNull Object channel, @NotNull Object packet) {
+        if (Channel.write == null) return false;
+        try {
+            Channel.write.invokeExact(channel, packet);
+            return true;
+        } catch (Throwable t) {
+            Bukkit.getLogger().log(Level.WARNING, "Cannot write packet: " + packet.getClass().getSimpleName(), t);
+            return false;
+        }
+    }
+
+    /**
+     * Flushes every packet written to a channel
+     *
+     * @param channel the netty channel
+     */
+    static void flush(@NotNull Object channel) {
+        if (Channel.flush == null) return;
+        try {
+            Channel.flush.invokeExact(channel);
+        } catch (Throwable t) {
+            Bukkit.getLogger().log(Level.WARNING, "Cannot flush channel", t);
+        }
+    }
+
+    /**
+     * Gets an NMS copy of the {@link ItemStack}
+     *
+     * @param item the item to copy
+     * @return the NMS copy, or null if it cannot be made
+     */
+    @Nullable
+    public static Object asNMSCopy(@NotNull ItemStack item) {
+        MethodHandle copier = ItemCopier.value;
+        if (copier == null) return null;
+        try {
+            return (Object) copier.invokeExact(item);
+        } catch (Throwable t) {
+            Bukkit.getLogger().log(Level.WARNING, "Cannot get NMS copy of item!", t);
+            return null;
+        }
+    }
+
+    private static Optional<Class<?>> loadClass(String name) {
+        try {
+            return Optional.of(Class.forName(name));
+        } catch (ClassNotFoundException | LinkageError e) {
+            Bukkit.getLogger().log(Level.WARNING, "Cannot find class: " + name + "!");
+            return Optional.empty();
+        }
+    }
+
+    // Looks for a public member first, then for a declared one in the class and its superclasses
+    private static Optional<MethodHandle> resolve(MemberKey key) {
+        try {
+            if (key.field) {
+                Field field;
+                try {
+                    field = key.owner.getField(key.name);
+                } catch (NoSuchFieldException e) {
+                    field = findDeclaredField(key.owner, key.name);
+                }
+                field.setAccessible(true);
+                return Optional.of(lookup.unreflectGetter(field));
+            }
+
+            Method method;
+            try {
+                method = key.owner.getMethod(key.name, key.parameters);
+            } catch (NoSuchMethodException e) {
+                method = findDeclaredMethod(key.owner, key.name, key.parameters);
+            }
+            method.setAccessible(true);
+            return Optional.of(lookup.unreflect(method));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            Bukkit.getLogger().log(Level.WARNING, "Cannot find " + key + "!");
+            return Optional.empty();
+        }
+    }
+
+    private static Field findFieldOfType(Class<?> owner, Class<?> type) {
+        for (Class<?> c = owner; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (type.isAssignableFrom(field.getType())) return field;
+            }
+        }
+        return null;
+    }
+
+    private static Field findDeclaredField(Class<?> owner, String name) throws NoSuchFieldException {
+        for (Class<?> c = owner; c != null; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(name);
+            } catch (NoSuchFieldException ignored) {
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+
+    private static Method findDeclaredMethod(Class<?> owner, String name, Class<?>[] parameters) throws NoSuchMethodException {
+        for (Class<?> c = owner; c != null; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredMethod(name, parameters);
+            } catch (NoSuchMethodException ignored) {
+            }
+        }
+        throw new NoSuchMethodException(name);
+    }
+
+    // Resolved on first use, so that loading this class doesn't need a server
+    private static final class PacketClass {
+        private static final Class<?> value = NMSAccessors.getClass("net.minecraft.network.protocol.Packet");
+    }
+
+    private static final class Channel {
+        private static final Class<?> type = NMSAccessors.getClass("io.netty.channel.Channel");
+        private static final MethodHandle write = type == null ? null : adapt(findMethod(type, "write", Object.class), senderType);
+        private static final MethodHandle flush = type == null ? null : adapt(findMethod(type, "flush"), MethodType.methodType(void.class, Object.class));
+
+        private static MethodHandle adapt(MethodHandle handle, MethodType type) {
+            return handle == null ? null : handle.asType(type);
+        }
+    }
+
+    private static final class ItemCopier {
+        private static final MethodHandle value = resolveItemCopier();
+
+        private static MethodHandle resolveItemCopier() {
+            Class<?> itemClass = getCraftBukkitClass("inventory.CraftItemStack");
+            if (itemClass == null) return null;
+            MethodHandle handle = findMethod(itemClass, "asNMSCopy", ItemStack.class);
+            return handle == null ? null : handle.asType(MethodType.methodType(Object.class, ItemStack.class));
+        }
+    }
+
+    private static final class MemberKey {
+        private final Class<?> owner;
+        private final String name;
+        private final Class<?>[] parameters;
+        private final boolean field;
+        private final int hash;
+
+        private MemberKey(Class<?> owner, String name, Class<?>[] parameters, boolean field) {
+            this.owner = owner;
+            this.name = name;
+            this.parameters = parameters.clone();
+            this.field = field;
+            this.hash = 31 * (31 * owner.hashCode() + name.hashCode()) + Arrays.hashCode(this.parameters) + (field ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MemberKey)) return false;
+            MemberKey key = (MemberKey) o;
+            return field == key.field && owner == key.owner && name.equals(key.name) && Arrays.equals(parameters, key.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            if (field) return "field " + owner.getName() + "." + name;
+            return "method " + owner.getName() + "." + name + Arrays.toString(parameters);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package top.shjibi.plugineer.nms;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.shjibi.plugineer.command.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Batches packets per connection during a tick.
+ * <br>Packets can be queued from any thread, they are written to the connections once per tick, between two ticks, and every connection is flushed once.
+ * Every batch is sent with {@link VersionAdapter#sendPackets}, which writes the packets and flushes the connection once.
+ * <br>The time from queueing a packet to flushing it is recorded to {@link #getDeliveryTimes()}.
+ * <br>Every plugin has its own batcher, flushed by a task of that plugin, which shuts down when the plugin is disabled.
+ * </p>
+ */
+public final class PacketBatcher implements Listener {
+
+    private PacketBatcher(@NotNull JavaPlugin plugin) {
+        Preconditions.checkNotNull(plugin, "'plugin' cannot be null!");
+        this.plugin = plugin;
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::flush, 1L, 1L);
+    }
+
+    private static final Map<JavaPlugin, PacketBatcher> batchers = new ConcurrentHashMap<>();
+    @NotNull
+    private final JavaPlugin plugin;
+    @NotNull
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    @NotNull
+    private final LatencyHistogram deliveryTimes = new LatencyHistogram();
+    @NotNull
+    private final LongAdder flushes = new LongAdder();
+    @Nullable
+    private BukkitTask task;
+
+    /**
+     * Gets or create the only instance of {@link PacketBatcher} for a plugin, which starts flushing every tick.
+     *
+     * @return the instance of {@link PacketBatcher} for a plugin
+     */
+    @NotNull
+    public static PacketBatcher get(@NotNull JavaPlugin plugin) {
+        Preconditions.checkNotNull(plugin, "'plugin' cannot be null!");
+        PacketBatcher batcher = batchers.get(plugin);
+        if (batcher != null) return batcher;
+        return batchers.computeIfAbsent(plugin, PacketBatcher::new);
+    }
+
+    /**
+     * Queues a packet to a player
+     *
+     * @param p      the player to send the packet to
+     * @param packet the NMS packet
+     */
+    public void queue(@NotNull Player p, @NotNull Object packet) {
+        Preconditions.checkArgument(VersionAdapters.get().isPacket(packet), "Not a packet: %s", packet.getClass().getName());
+        queue.add(new Pending(p, packet, System.nanoTime()));
+    }
+
+    /**
+     * Queues the same packet to many players
+     *
+     * @param recipients the players to send the packet to
+     * @param packet     the NMS packet
+     */
+    public void queue(@NotNull Collection<? extends Player> recipients, @NotNull Object packet) {
+        Preconditions.checkArgument(VersionAdapters.get().isPacket(packet), "Not a packet: %s", packet.getClass().getName());
+        long now = System.nanoTime();
+        for (Player p : recipients) {
+            queue.add(new Pending(p, packet, now));
+        }
+    }
+
+    /**
+     * Writes every queued packet to its connection and flushes every connection once, this is done every tick.
+     * <br>Only call it on the main thread.
+     */
+    public void flush() {
+        if (queue.isEmpty()) return;
+        Map<Player, List<Pending>> batches = new IdentityHashMap<>();
+        for (Pending pending = queue.poll(); pending != null; pending = queue.poll()) {
+            batches.computeIfAbsent(pending.player, p -> new ArrayList<>()).add(pending);
+        }
+
+        VersionAdapter adapter = VersionAdapters.get();
+        for (Map.Entry<Player, List<Pending>> entry : batches.entrySet()) {
+            Player p = entry.getKey();
+            if (!p.isOnline()) continue;
+            List<Pending> batch = entry.getValue();
+            List<Object> packets = new ArrayList<>(batch.size());
+            for (Pending pending : batch) {
+                packets.add(pending.packet);
+            }
+            adapter.sendPackets(p, packets);
+            flushes.increment();
+
+            long now = System.nanoTime();
+            for (Pending pending : batch) {
+                deliveryTimes.record(now - pending.queuedAt);
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent e) {
+        if (e.getPlugin() == plugin) shutdown();
+    }
+
+    /**
+     * Stops flushing every tick, after flushing the packets that are still queued, the next call to {@link #get} creates a new batcher
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        flush();
+        HandlerList.unregisterAll(this);
+        batchers.remove(plugin, this);
+    }
+
+    /**
+     * Gets the time from queueing a packet to flushing it, in nanoseconds
+     */
+    @NotNull
+    public LatencyHistogram getDeliveryTimes() {
+        return deliveryTimes;
+    }
+
+    /**
+     * Gets how many times a connection has been flushed
+     */
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+
+    /**
+     * Gets the plugin that this batcher works with.
+     */
+    @NotNull
+    public JavaPlugin getPlugin() {
+        return plugin;
+    }
+
+    private static final class Pending {
+        private final Player player;
+        private final Object packet;
+        private final long queuedAt;
+
+        private Pending(Player player, Object packet, long queuedAt) {
+            this.player = player;
+            this.packet = packet;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package top.shjibi.plugineer.nms;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * <p>The adapter of server versions without a compiled one.
+ * <br>Every operation goes through the cached handles of {@link NMSAccessors}, which are resolved by name and type on first use.
+ * </p>
+ */
+final class ReflectiveVersionAdapter implements VersionAdapter {
+
+    @NotNull
+    private final String version;
+
+    ReflectiveVersionAdapter(@NotNull String version) {
+        this.version = version;
+    }
+
+    @NotNull
+    @Override
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public boolean isPacket(@NotNull Object packet) {
+        return NMSAccessors.isPacket(packet);
+    }
+
+    @Override
+    public boolean sendPacket(@NotNull Player p, @NotNull Object packet) {
+        return NMSAccessors.sendPacket(p, packet);
+    }
+
+    @Override
+    public boolean sendPackets(@NotNull Player p, @NotNull List<?> packets) {
+        Object connection = NMSAccessors.getConnection(p);
+        if (connection == null || NMSAccessors.isDisconnecting(connection)) return false;
+        Object channel = NMSAccessors.getChannel(connection);
+        boolean sent = true;
+        for (Object packet : packets) {
+            if (channel == null || NMSAccessors.isConnectionHandled(packet)) {
+                sent &= NMSAccessors.sendThrough(connection, packet);
+            } else {
+                sent &= NMSAccessors.write(channel, packet);
+            }
+        }
+        if (channel != null) NMSAccessors.flush(channel);
+        return sent;
+    }
+
+    @Nullable
+    @Override
+    public Object asNMSCopy(@NotNull ItemStack item) {
+        return NMSAccessors.asNMSCopy(item);
+    }
+
+    @Nullable
+    @Override
+    public Object[] createChatPackets(@NotNull String message) {
+        if (ChatFactory.components == null || ChatFactory.packets == null) return null;
+        try {
+            Object[] components = (Object[]) ChatFactory.components.invokeExact(message);
+            Object[] packets = new Object[components.length];
+            for (int i = 0; i < components.length; i++) {
+                packets[i] = (Object) ChatFactory.packets.invokeExact(components[i]);
+            }
+            return packets;
+        } catch (Throwable t) {
+            Bukkit.getLogger().log(Level.WARNING, "Cannot build the chat packet of: " + message, t);
+            return null;
+        }
+    }
+
+    // Resolved on first use, from CraftChatMessage and the chat packet of the running version
+    private static final class ChatFactory {
+        private static final String[] packetClasses = {
+                "net.minecraft.network.protocol.game.ClientboundSystemChatPacket",
+                "net.minecraft.network.protocol.game.PacketPlayOutChat"
+        };
+
+        private static final MethodHandle components = resolveComponents();
+        private static final MethodHandle packets = components == null ? null : resolvePacket(components.type().returnType().getComponentType());
+
+        private static MethodHandle resolveComponents() {
+            Class<?> chatMessage = NMSAccessors.getCraftBukkitClass("util.CraftChatMessage");
+            if (chatMessage == null) return null;
+            try {
+                Method method = chatMessage.getMethod("fromString", String.class);
+                if (!method.getReturnType().isArray()) return null;
+                return MethodHandles.publicLookup().unreflect(method).asType(MethodType.methodType(Object[].class, String.class));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                Bukkit.getLogger().log(Level.WARNING, "Cannot find CraftChatMessage.fromString!");
+                return null;
+            }
+        }
+
+        private static MethodHandle resolvePacket(Class<?> componentClass) {
+            Class<?> packetClass = null;
+            for (String name : packetClasses) {
+                packetClass = NMSAccessors.getClass(name);
+                if (packetClass != null) break;
+            }
+            if (packetClass == null) packetClass = NMSAccessors.getNMSClass("PacketPlayOutChat");
+            if (packetClass == null) return null;
+
+            // The constructor with the fewest parameters that takes the component first, other parameters are given neutral values
+            MethodHandle best = null;
+            int bestCount = Integer.MAX_VALUE;
+            for (Constructor<?> constructor : packetClass.getConstructors()) {
+                Class<?>[] parameters = constructor.getParameterTypes();
+                if (parameters.length == 0 || parameters.length >= bestCount || !parameters[0].isAssignableFrom(componentClass)) continue;
+                Object[] values = new Object[parameters.length - 1];
+                boolean supported = true;
+                for (int i = 1; i < parameters.length && supported; i++) {
+                    values[i - 1] = neutralValue(parameters[i]);
+                    supported = values[i - 1] != null;
+                }
+                if (!supported) continue;
+                try {
+                    best = MethodHandles.insertArguments(MethodHandles.publicLookup().unreflectConstructor(constructor), 1, values)
+                            .asType(MethodType.methodType(Object.class, Object.class));
+                    bestCount = parameters.length;
+                } catch (IllegalAccessException ignored) {
+                }
+            }
+            if (best == null) Bukkit.getLogger().log(Level.WARNING, "Cannot find a constructor of " + packetClass.getName() + "!");
+            return best;
+        }
+
+        // False for booleans, the system message type for enums and the nil UUID for senders
+        private static Object neutralValue(Class<?> type) {
+            if (type == boolean.class) return false;
+            if (type == UUID.class) return new UUID(0, 0);
+            if (type.isEnum()) {
+                Object[] constants = type.getEnumConstants();
+                for (Object constant : constants) {
+                    if (((Enum<?>) constant).name().equals("SYSTEM")) return constant;
+                }
+                return constants.length > 0 ? constants[0] : null;
+            }
+            return null;
+        }
+    }
+}
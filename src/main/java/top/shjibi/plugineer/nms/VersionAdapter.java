@@ -0,0 +1,83 @@
+package top.shjibi.plugineer.nms;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * <p>The NMS operations of one server version.
+ * <br>An adapter is compiled against the server it supports, so that it calls NMS and CraftBukkit directly, and is provided by a {@link VersionAdapterProvider}.
+ * The adapter of the running server is chosen once by {@link VersionAdapters#get()}.
+ * </p>
+ */
+public interface VersionAdapter {
+
+    /**
+     * Gets the version this adapter supports, like {@code v1_14_R1}
+     */
+    @NotNull
+    String getVersion();
+
+    /**
+     * Gets whether the object is an NMS packet
+     */
+    boolean isPacket(@NotNull Object packet);
+
+    /**
+     * Sends a packet to the player
+     *
+     * @param p      the player to send the packet to
+     * @param packet the NMS packet
+     * @return whether the packet was sent
+     */
+    boolean sendPacket(@NotNull Player p, @NotNull Object packet);
+
+    /**
+     * Sends packets to the player, in order, flushing the connection once
+     * <br>Packets that the connection handles itself, like chat, are sent through it, and nothing is sent to a connection that is being closed.
+     *
+     * @param p       the player to send the packets to
+     * @param packets the NMS packets
+     * @return whether the packets were sent
+     */
+    boolean sendPackets(@NotNull Player p, @NotNull List<?> packets);
+
+    /**
+     * Gets an NMS copy of the {@link ItemStack}
+     *
+     * @param item the item to copy
+     * @return the NMS copy, or null if it cannot be made
+     */
+    @Nullable
+    Object asNMSCopy(@NotNull ItemStack item);
+
+    /**
+     * Reads a long stored in the persistent data of an item
+     * <br>Adapters read it from the item's tag when they can, without copying its {@link ItemMeta}, which this default does.
+     *
+     * @param item the item
+     * @param key  the key the long is stored under
+     * @return the long, or 0 if there's none
+     */
+    default long getPersistentLong(@NotNull ItemStack item, @NotNull NamespacedKey key) {
+        if (!item.hasItemMeta()) return 0;
+        ItemMeta meta = item.getItemMeta();
+        Long value = meta == null ? null : meta.getPersistentDataContainer().get(key, PersistentDataType.LONG);
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Builds the system chat packets of a message, one for each line
+     *
+     * @param message the message, already colored
+     * @return the packets, or null if chat packets cannot be built
+     */
+    @Nullable
+    Object[] createChatPackets(@NotNull String message);
+}
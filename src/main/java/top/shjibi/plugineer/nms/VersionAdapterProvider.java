@@ -0,0 +1,24 @@
+package top.shjibi.plugineer.nms;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * <p>Provides the {@link VersionAdapter} of one server version.
+ * <br>Providers are found with {@link java.util.ServiceLoader}, so they are listed in {@code META-INF/services/top.shjibi.plugineer.nms.VersionAdapterProvider}.
+ * A provider must not load NMS classes until {@link #create()} is called, since every provider is loaded to find the one that matches the server.
+ * </p>
+ */
+public interface VersionAdapterProvider {
+
+    /**
+     * Gets the version the adapter supports, like {@code v1_14_R1}
+     */
+    @NotNull
+    String getVersion();
+
+    /**
+     * Creates the adapter, only called on the server version it supports
+     */
+    @NotNull
+    VersionAdapter create();
+}
@@ -0,0 +1,71 @@
+package top.shjibi.plugineer.nms;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.logging.Level;
+
+/**
+ * <p>Chooses the {@link VersionAdapter} of the running server.
+ * <br>The adapter is chosen once, on the first call to {@link #get()}, from the {@link VersionAdapterProvider}s that match {@link NMSAccessors#getVersion()}.
+ * Call it when the plugin is enabled, so that no packet waits for it.
+ * <br>When no provider matches, a reflective adapter built on {@link NMSAccessors} is used instead.
+ * </p>
+ */
+public final class VersionAdapters {
+
+    private VersionAdapters() {
+    }
+
+    @Nullable
+    private static volatile VersionAdapter adapter;
+
+    /**
+     * Gets the adapter of the running server, choosing it on the first call
+     */
+    @NotNull
+    public static VersionAdapter get() {
+        VersionAdapter adapter = VersionAdapters.adapter;
+        if (adapter == null) {
+            synchronized (VersionAdapters.class) {
+                adapter = VersionAdapters.adapter;
+                if (adapter == null) {
+                    VersionAdapters.adapter = adapter = select(NMSAccessors.getVersion(), VersionAdapters.class.getClassLoader());
+                }
+            }
+        }
+        return adapter;
+    }
+
+    /**
+     * Chooses the adapter of a version, without caching it
+     *
+     * @param version the server version, like {@code v1_14_R1}
+     * @param loader  the class loader to find the providers with
+     * @return the adapter of the first provider that matches the version, or the reflective adapter if none does
+     */
+    @NotNull
+    public static VersionAdapter select(@NotNull String version, @NotNull ClassLoader loader) {
+        Preconditions.checkNotNull(version, "'version' cannot be null!");
+        Preconditions.checkNotNull(loader, "'loader' cannot be null!");
+        try {
+            for (VersionAdapterProvider provider : ServiceLoader.load(VersionAdapterProvider.class, loader)) {
+                if (provider.getVersion().equals(version)) return provider.create();
+            }
+        } catch (ServiceConfigurationError | LinkageError e) {
+            Bukkit.getLogger().log(Level.WARNING, "Cannot load the adapter of " + version + "!", e);
+        }
+        return new ReflectiveVersionAdapter(version);
+    }
+
+    /**
+     * Gets whether the adapter of the running server is compiled for it, rather than reflective
+     */
+    public static boolean isCompiled() {
+        return !(get() instanceof ReflectiveVersionAdapter);
+    }
+}
@@ -0,0 +1,132 @@
+package top.shjibi.plugineer.nms.v1_14_R1;
+
+import io.netty.channel.Channel;
+import net.minecraft.server.v1_14_R1.ChatMessageType;
+import net.minecraft.server.v1_14_R1.IChatBaseComponent;
+import net.minecraft.server.v1_14_R1.NBTTagCompound;
+import net.minecraft.server.v1_14_R1.Packet;
+import net.minecraft.server.v1_14_R1.PacketPlayOutChat;
+import net.minecraft.server.v1_14_R1.PacketPlayOutSpawnPosition;
+import net.minecraft.server.v1_14_R1.PlayerConnection;
+import org.bukkit.craftbukkit.v1_14_R1.entity.CraftPlayer;
+import org.bukkit.craftbukkit.v1_14_R1.inventory.CraftItemStack;
+import org.bukkit.craftbukkit.v1_14_R1.util.CraftChatMessage;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.shjibi.plugineer.nms.VersionAdapter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * The adapter of Minecraft 1.14, compiled against its server
+ */
+final class NMSAdapter implements VersionAdapter {
+
+    // A constant, so that the provider can read it without loading this class
+    static final String version = "v1_14_R1";
+
+    // The tag that CraftMetaItem keeps persistent data in
+    private static final String bukkitValues = "PublicBukkitValues";
+    private static final int compoundType = 10;
+
+    // CraftItemStack keeps its NMS item in a package-private field, read once through a constant handle
+    @Nullable
+    private static final MethodHandle itemHandleGetter = resolveItemHandleGetter();
+
+    @Nullable
+    private static MethodHandle resolveItemHandleGetter() {
+        try {
+            Field field = CraftItemStack.class.getDeclaredField("handle");
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @NotNull
+    @Override
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public boolean isPacket(@NotNull Object packet) {
+        return packet instanceof Packet;
+    }
+
+    @Override
+    public boolean sendPacket(@NotNull Player p, @NotNull Object packet) {
+        PlayerConnection connection = getConnection(p);
+        if (connection == null || !(packet instanceof Packet)) return false;
+        connection.sendPacket((Packet<?>) packet);
+        return true;
+    }
+
+    @Override
+    public boolean sendPackets(@NotNull Player p, @NotNull List<?> packets) {
+        PlayerConnection connection = getConnection(p);
+        if (connection == null || connection.processedDisconnect) return false;
+        Channel channel = connection.networkManager.channel;
+        boolean sent = true;
+        for (Object packet : packets) {
+            if (!(packet instanceof Packet)) {
+                sent = false;
+            } else if (channel == null || isConnectionHandled(packet)) {
+                connection.sendPacket((Packet<?>) packet);
+            } else {
+                channel.write(packet);
+            }
+        }
+        if (channel != null) channel.flush();
+        return sent;
+    }
+
+    @Nullable
+    @Override
+    public Object asNMSCopy(@NotNull ItemStack item) {
+        return CraftItemStack.asNMSCopy(item);
+    }
+
+    @Override
+    public long getPersistentLong(@NotNull ItemStack item, @NotNull NamespacedKey key) {
+        if (!(item instanceof CraftItemStack) || itemHandleGetter == null) return VersionAdapter.super.getPersistentLong(item, key);
+        net.minecraft.server.v1_14_R1.ItemStack handle;
+        try {
+            handle = (net.minecraft.server.v1_14_R1.ItemStack) itemHandleGetter.invokeExact((CraftItemStack) item);
+        } catch (Throwable t) {
+            return VersionAdapter.super.getPersistentLong(item, key);
+        }
+        NBTTagCompound tag = handle == null ? null : handle.getTag();
+        if (tag == null || !tag.hasKeyOfType(bukkitValues, compoundType)) return 0;
+        return tag.getCompound(bukkitValues).getLong(key.toString());
+    }
+
+    @NotNull
+    @Override
+    public Object[] createChatPackets(@NotNull String message) {
+        IChatBaseComponent[] components = CraftChatMessage.fromString(message);
+        Object[] packets = new Object[components.length];
+        for (int i = 0; i < components.length; i++) {
+            packets[i] = new PacketPlayOutChat(components[i], ChatMessageType.SYSTEM);
+        }
+        return packets;
+    }
+
+    // The connection drops chat that the player's chat settings hide, and keeps the compass target of spawn positions
+    private static boolean isConnectionHandled(Object packet) {
+        return packet instanceof PacketPlayOutChat || packet instanceof PacketPlayOutSpawnPosition;
+    }
+
+    @Nullable
+    private static PlayerConnection getConnection(Player p) {
+        if (!(p instanceof CraftPlayer)) return null;
+        return ((CraftPlayer) p).getHandle().playerConnection;
+    }
+}
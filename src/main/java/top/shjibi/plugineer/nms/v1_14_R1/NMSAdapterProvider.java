@@ -0,0 +1,23 @@
+package top.shjibi.plugineer.nms.v1_14_R1;
+
+import org.jetbrains.annotations.NotNull;
+import top.shjibi.plugineer.nms.VersionAdapter;
+import top.shjibi.plugineer.nms.VersionAdapterProvider;
+
+/**
+ * Provides the adapter of Minecraft 1.14, which is only loaded when the server runs it
+ */
+public final class NMSAdapterProvider implements VersionAdapterProvider {
+
+    @NotNull
+    @Override
+    public String getVersion() {
+        return NMSAdapter.version;
+    }
+
+    @NotNull
+    @Override
+    public VersionAdapter create() {
+        return new NMSAdapter();
+    }
+}
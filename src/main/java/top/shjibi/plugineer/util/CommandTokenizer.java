@@ -0,0 +1,111 @@
+package top.shjibi.plugineer.util;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A utility class that splits command lines into labels and arguments.
+ * <br>Arguments are separated by any number of spaces, and an argument that starts with a double quote (<code>"</code>) runs until the matching quote.
+ * Inside quotes, a backslash escapes the next character. A quote that is never closed, or that is closed in the middle of a word, is treated as a normal character.
+ * Single quotes are never special, so text like <code>don't</code> splits just like it does on spaces.
+ */
+public final class CommandTokenizer {
+
+    private CommandTokenizer() {
+    }
+
+    private static final String[] EMPTY = new String[0];
+
+    /**
+     * Gets the index after the last character of the label, without allocating anything
+     *
+     * @param line The command line
+     * @param from Index of the first character of the label
+     * @return the index of the first space after the label, or the length of the line if there isn't one
+     */
+    public static int labelEnd(@NotNull String line, int from) {
+        int end = line.indexOf(' ', from);
+        return end < 0 ? line.length() : end;
+    }
+
+    /**
+     * Splits the arguments of a command line
+     *
+     * @param line The command line
+     * @param from Index to start from, usually the end of the label
+     * @return the arguments, never containing blank unquoted arguments
+     */
+    @NotNull
+    public static String[] tokenize(@NotNull String line, int from) {
+        int count = 0;
+        for (int i = skipSpaces(line, from); i < line.length(); i = skipSpaces(line, tokenEnd(line, i))) {
+            count++;
+        }
+        if (count == 0) return EMPTY;
+
+        String[] tokens = new String[count];
+        int n = 0;
+        for (int i = skipSpaces(line, from); i < line.length(); ) {
+            int end = tokenEnd(line, i);
+            tokens[n++] = token(line, i, end);
+            i = skipSpaces(line, end);
+        }
+        return tokens;
+    }
+
+    /**
+     * Splits the arguments of a command line
+     *
+     * @param line The command line, without the label
+     * @return the arguments
+     */
+    @NotNull
+    public static String[] tokenize(@NotNull String line) {
+        return tokenize(line, 0);
+    }
+
+    private static int skipSpaces(String line, int i) {
+        while (i < line.length() && line.charAt(i) == ' ') i++;
+        return i;
+    }
+
+    private static int tokenEnd(String line, int start) {
+        if (isQuote(line.charAt(start))) {
+            int close = closingQuote(line, start);
+            if (close >= 0) return close + 1;
+        }
+        return labelEnd(line, start);
+    }
+
+    private static String token(String line, int start, int end) {
+        if (!isQuote(line.charAt(start)) || closingQuote(line, start) != end - 1) return line.substring(start, end);
+
+        int contentEnd = end - 1;
+        int escape = line.indexOf('\\', start + 1);
+        if (escape < 0 || escape >= contentEnd) return line.substring(start + 1, contentEnd);
+
+        StringBuilder builder = new StringBuilder(contentEnd - start - 1);
+        for (int i = start + 1; i < contentEnd; i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < contentEnd) c = line.charAt(++i);
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    // The closing quote only counts if the word ends there
+    private static int closingQuote(String line, int start) {
+        for (int i = start + 1; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '"') {
+                return i + 1 == line.length() || line.charAt(i + 1) == ' ' ? i : -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isQuote(char c) {
+        return c == '"';
+    }
+}
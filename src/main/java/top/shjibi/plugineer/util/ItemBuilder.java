@@ -10,6 +10,9 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.shjibi.plugineer.data.DataCodecs;
+import top.shjibi.plugineer.data.ItemFingerprints;
 
 import java.util.Arrays;
 import java.util.List;
@@ -221,6 +224,65 @@ public final class ItemBuilder {
         return this;
     }
 
+    /**
+     * Stores the fingerprint of an id in the final item, see {@link ItemFingerprints}
+     *
+     * @param id the id of the custom item, include the name of your plugin to avoid clashing with other plugins
+     * @return The modified {@link ItemBuilder}
+     */
+    @NotNull
+    public ItemBuilder withFingerprint(@NotNull String id) {
+        ItemFingerprints.write(itemMeta.getPersistentDataContainer(), ItemFingerprints.of(id));
+        return this;
+    }
+
+    /**
+     * Stores an object in the final item, as one value under the key of its type
+     *
+     * @param value the object, a record or a type registered to {@link DataCodecs}
+     * @return The modified {@link ItemBuilder}
+     */
+    @NotNull
+    public ItemBuilder withData(@NotNull Object value) {
+        DataCodecs.write(itemMeta.getPersistentDataContainer(), value);
+        return this;
+    }
+
+    /**
+     * Removes the object of a type from the final item
+     *
+     * @param type the type of the object
+     * @return The modified {@link ItemBuilder}
+     */
+    @NotNull
+    public ItemBuilder withoutData(@NotNull Class<?> type) {
+        DataCodecs.remove(itemMeta.getPersistentDataContainer(), type);
+        return this;
+    }
+
+    /**
+     * Reads the object of a type stored in the final item
+     *
+     * @param type the type of the object
+     * @return the object, or null if there's none
+     */
+    @Nullable
+    public <T> T readData(@NotNull Class<T> type) {
+        return DataCodecs.read(itemMeta.getPersistentDataContainer(), type);
+    }
+
+    /**
+     * Reads the object of a type stored in an item
+     *
+     * @param item the item
+     * @param type the type of the object
+     * @return the object, or null if there's none
+     */
+    @Nullable
+    public static <T> T readData(@NotNull ItemStack item, @NotNull Class<T> type) {
+        return DataCodecs.read(item, type);
+    }
+
     /**
      * Gets the {@link ItemMeta} of the ItemBuilder
      *
@@ -233,6 +295,7 @@ public final class ItemBuilder {
 
     /**
      * Builds the final {@link ItemStack}
+     * <br>The item is the builder's own, use {@link #freeze} to share an item.
      *
      * @return The final item
      */
@@ -242,6 +305,18 @@ public final class ItemBuilder {
         return itemStack;
     }
 
+    /**
+     * Freezes the final item into an {@link ItemTemplate}, which creates copies of it
+     * <br>Changing the builder afterwards doesn't change the template.
+     *
+     * @param placeholders names of the placeholders in the display name and lore, without angle brackets
+     * @return The frozen {@link ItemTemplate}
+     */
+    @NotNull
+    public ItemTemplate freeze(@NotNull String... placeholders) {
+        return new ItemTemplate(build(), placeholders);
+    }
+
     @Override
     public String toString() {
         return "ItemBuilder {material: " + itemStack.getType() + ", amount: " + itemStack.getAmount() + ", itemMeta: " + itemMeta + "}";
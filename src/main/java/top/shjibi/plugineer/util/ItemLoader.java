@@ -0,0 +1,319 @@
+package top.shjibi.plugineer.util;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeModifier;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+/**
+ * <p>Loads items from configuration into an {@link ItemRegistry} of {@link ItemTemplate}s.
+ * <br>Every item is read, colored once with {@link StringUtil#color}, validated and built into its template in parallel.
+ * Creating item metas doesn't touch the world, so only handing over the registry and logging its errors is left to the main thread.
+ * Items that fail to load are skipped, and their reasons are logged and kept in {@link ItemRegistry#getErrors()}.
+ * <br>An item is a section, its key being the id of the item:
+ * <pre>
+ * ruby:
+ *   material: RED_DYE
+ *   amount: 1
+ *   name: "&amp;cRuby"
+ *   lore: ["&amp;7A shiny gem", "&amp;7Price: &amp;e&lt;price&gt;"]
+ *   placeholders: [price]
+ *   enchants: {unbreaking: 3}
+ *   attributes:
+ *     - {attribute: GENERIC_ATTACK_DAMAGE, amount: 2, operation: ADD_NUMBER, slot: HAND}
+ *   flags: [HIDE_ENCHANTS]
+ *   data: {rarity: epic, "otherplugin:power": 3}
+ * </pre>
+ * Persistent data without a namespace uses the namespace of the plugin, its type is inferred from the value: strings, integers, longs, doubles and booleans, which are stored as bytes.
+ * <br>Every item gets the fingerprint of {@code <plugin>:<id>}, see {@link ItemBuilder#withFingerprint}.
+ * </p>
+ */
+public final class ItemLoader {
+
+    private ItemLoader(@NotNull JavaPlugin plugin) {
+        Preconditions.checkNotNull(plugin, "'plugin' cannot be null!");
+        this.plugin = plugin;
+    }
+
+    @NotNull
+    private final JavaPlugin plugin;
+
+    /**
+     * Gets an ItemLoader for a plugin
+     *
+     * @param plugin the plugin, the namespace of its persistent data
+     * @return An ItemLoader
+     */
+    @NotNull
+    public static ItemLoader of(@NotNull JavaPlugin plugin) {
+        return new ItemLoader(plugin);
+    }
+
+    /**
+     * Loads every item of a section, reading and building them in parallel and waiting for them on the calling thread
+     *
+     * @param section the section whose keys are the ids of the items
+     * @return the loaded items
+     */
+    @NotNull
+    public ItemRegistry load(@NotNull ConfigurationSection section) {
+        Preconditions.checkNotNull(section, "'section' cannot be null!");
+        return finish(parse(List.of(section)));
+    }
+
+    /**
+     * Loads every item of a section off the main thread
+     *
+     * @param section the section whose keys are the ids of the items, it must not change while loading
+     * @return a future that completes on the main thread with the loaded items
+     */
+    @NotNull
+    public CompletableFuture<ItemRegistry> loadAsync(@NotNull ConfigurationSection section) {
+        Preconditions.checkNotNull(section, "'section' cannot be null!");
+        return CompletableFuture.supplyAsync(() -> parse(List.of(section))).thenCompose(this::finishOnMainThread);
+    }
+
+    /**
+     * Loads every item of some YAML files, reading, parsing and building them off the main thread
+     *
+     * @param files the files whose root keys are the ids of the items, an id can only be used once across them
+     * @return a future that completes on the main thread with the loaded items
+     */
+    @NotNull
+    public CompletableFuture<ItemRegistry> loadAsync(@NotNull File... files) {
+        Preconditions.checkNotNull(files, "'files' cannot be null!");
+        return CompletableFuture.supplyAsync(() -> parse(Arrays.stream(files)
+                        .parallel()
+                        .map(YamlConfiguration::loadConfiguration)
+                        .collect(Collectors.toList())))
+                .thenCompose(this::finishOnMainThread);
+    }
+
+    private CompletableFuture<ItemRegistry> finishOnMainThread(Parsed parsed) {
+        CompletableFuture<ItemRegistry> future = new CompletableFuture<>();
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            try {
+                future.complete(finish(parsed));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private Parsed parse(List<? extends ConfigurationSection> roots) {
+        List<ConfigurationSection> sections = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        Map<String, Boolean> seen = new LinkedHashMap<>();
+        for (ConfigurationSection root : roots) {
+            for (String id : root.getKeys(false)) {
+                if (seen.put(id, true) != null) {
+                    errors.add(id + ": defined more than once");
+                } else if (!root.isConfigurationSection(id)) {
+                    errors.add(id + ": not a section");
+                } else {
+                    sections.add(root.getConfigurationSection(id));
+                }
+            }
+        }
+
+        List<Object> results = sections.parallelStream().map(this::loadItem).collect(Collectors.toList());
+        Map<String, ItemTemplate> templates = new LinkedHashMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            Object result = results.get(i);
+            if (result instanceof ItemTemplate) {
+                templates.put(sections.get(i).getName(), (ItemTemplate) result);
+            } else {
+                errors.add((String) result);
+            }
+        }
+        return new Parsed(templates, errors);
+    }
+
+    // Gets the template of the item, or the reason it's invalid
+    private Object loadItem(ConfigurationSection section) {
+        String id = section.getName();
+        try {
+            return new ItemDefinition(id, section).build();
+        } catch (RuntimeException e) {
+            return id + ": " + e.getMessage();
+        }
+    }
+
+    private ItemRegistry finish(Parsed parsed) {
+        for (String error : parsed.errors) {
+            plugin.getLogger().log(Level.WARNING, "Cannot load item " + error);
+        }
+        return new ItemRegistry(parsed.templates, parsed.errors);
+    }
+
+    private static <T extends Enum<T>> T parseEnum(Class<T> type, String name, String what) {
+        Preconditions.checkArgument(name != null, "missing %s", what);
+        try {
+            return Enum.valueOf(type, name.trim().toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown " + what + " '" + name + "'");
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private NamespacedKey parseKey(String name) {
+        int colon = name.indexOf(':');
+        String key = name.substring(colon + 1).toLowerCase(Locale.ROOT);
+        if (colon < 0) return new NamespacedKey(plugin, key);
+        return new NamespacedKey(name.substring(0, colon).toLowerCase(Locale.ROOT), key);
+    }
+
+    private static final class Parsed {
+        private final Map<String, ItemTemplate> templates;
+        private final List<String> errors;
+
+        private Parsed(Map<String, ItemTemplate> templates, List<String> errors) {
+            this.templates = templates;
+            this.errors = errors;
+        }
+    }
+
+    // An item read and validated from its section, its name and lore are already colored
+    private final class ItemDefinition {
+        private final String id;
+        private final Material material;
+        private final int amount;
+        @Nullable
+        private final String name;
+        @Nullable
+        private final List<String> lore;
+        private final String[] placeholders;
+        private final Map<Enchantment, Integer> enchants = new LinkedHashMap<>();
+        private final List<Attribute> attributes = new ArrayList<>();
+        private final List<AttributeModifier> modifiers = new ArrayList<>();
+        private final ItemFlag[] flags;
+        private final List<DataEntry<?>> data = new ArrayList<>();
+
+        private ItemDefinition(String id, ConfigurationSection section) {
+            this.id = id;
+            String materialName = section.getString("material");
+            Preconditions.checkArgument(materialName != null, "missing material");
+            material = Material.matchMaterial(materialName);
+            Preconditions.checkArgument(material != null, "unknown material '%s'", materialName);
+            Preconditions.checkArgument(material.isItem() && !material.isAir(), "'%s' is not an item", materialName);
+
+            amount = section.getInt("amount", 1);
+            Preconditions.checkArgument(amount >= 1, "amount must be at least 1");
+
+            name = section.isString("name") ? StringUtil.color(section.getString("name")) : null;
+            lore = section.contains("lore")
+                    ? section.getStringList("lore").stream().map(StringUtil::color).collect(Collectors.toList())
+                    : null;
+            placeholders = section.getStringList("placeholders").toArray(new String[0]);
+
+            ConfigurationSection enchantSection = section.getConfigurationSection("enchants");
+            if (enchantSection != null) {
+                for (String key : enchantSection.getKeys(false)) {
+                    Enchantment enchantment = Enchantment.getByKey(parseKey(key.contains(":") ? key : "minecraft:" + key));
+                    Preconditions.checkArgument(enchantment != null, "unknown enchantment '%s'", key);
+                    int level = enchantSection.getInt(key);
+                    Preconditions.checkArgument(level >= 1, "level of '%s' must be at least 1", key);
+                    enchants.put(enchantment, level);
+                }
+            }
+
+            List<Map<?, ?>> attributeList = section.getMapList("attributes");
+            for (int i = 0; i < attributeList.size(); i++) {
+                Map<?, ?> map = attributeList.get(i);
+                attributes.add(parseEnum(Attribute.class, string(map.get("attribute")), "attribute"));
+                Object amount = map.get("amount");
+                Preconditions.checkArgument(amount instanceof Number, "amount of attribute #%s must be a number", i + 1);
+                AttributeModifier.Operation operation = map.containsKey("operation")
+                        ? parseEnum(AttributeModifier.Operation.class, string(map.get("operation")), "operation")
+                        : AttributeModifier.Operation.ADD_NUMBER;
+                EquipmentSlot slot = map.containsKey("slot") ? parseEnum(EquipmentSlot.class, string(map.get("slot")), "slot") : null;
+                // The same uuid on every load, so that items stay similar across restarts
+                UUID uuid = UUID.nameUUIDFromBytes((plugin.getName() + ":" + id + ":" + i).getBytes(StandardCharsets.UTF_8));
+                String modifierName = map.containsKey("name") ? string(map.get("name")) : id;
+                modifiers.add(new AttributeModifier(uuid, modifierName, ((Number) amount).doubleValue(), operation, slot));
+            }
+
+            flags = section.getStringList("flags").stream()
+                    .map(flag -> parseEnum(ItemFlag.class, flag, "flag"))
+                    .toArray(ItemFlag[]::new);
+
+            ConfigurationSection dataSection = section.getConfigurationSection("data");
+            if (dataSection != null) {
+                for (String key : dataSection.getKeys(false)) {
+                    data.add(DataEntry.of(parseKey(key), dataSection.get(key)));
+                }
+            }
+        }
+
+        private ItemTemplate build() {
+            ItemBuilder builder = ItemBuilder.of(material, amount).withFingerprint(plugin.getName().toLowerCase(Locale.ROOT) + ":" + id);
+            if (name != null) builder.withDisplayName(name);
+            if (lore != null) builder.withLore(lore);
+            for (Map.Entry<Enchantment, Integer> entry : enchants.entrySet()) {
+                builder.withEnchant(entry.getKey(), entry.getValue(), true);
+            }
+            for (int i = 0; i < modifiers.size(); i++) {
+                builder.withAttributeModifier(attributes.get(i), modifiers.get(i));
+            }
+            if (flags.length > 0) builder.withItemFlags(flags);
+            for (DataEntry<?> entry : data) {
+                entry.apply(builder);
+            }
+            return builder.freeze(placeholders);
+        }
+
+        private String string(Object value) {
+            return value == null ? null : value.toString();
+        }
+    }
+
+    private static final class DataEntry<Z> {
+        private final NamespacedKey key;
+        private final PersistentDataType<?, Z> type;
+        private final Z value;
+
+        private DataEntry(NamespacedKey key, PersistentDataType<?, Z> type, Z value) {
+            this.key = key;
+            this.type = type;
+            this.value = value;
+        }
+
+        private static DataEntry<?> of(NamespacedKey key, Object value) {
+            if (value instanceof String) return new DataEntry<>(key, PersistentDataType.STRING, (String) value);
+            if (value instanceof Integer) return new DataEntry<>(key, PersistentDataType.INTEGER, (Integer) value);
+            if (value instanceof Long) return new DataEntry<>(key, PersistentDataType.LONG, (Long) value);
+            if (value instanceof Double) return new DataEntry<>(key, PersistentDataType.DOUBLE, (Double) value);
+            if (value instanceof Boolean) return new DataEntry<>(key, PersistentDataType.BYTE, (byte) ((Boolean) value ? 1 : 0));
+            throw new IllegalArgumentException("unsupported value of data '" + key.getKey() + "'");
+        }
+
+        private void apply(ItemBuilder builder) {
+            builder.withPersistentData(key, type, value);
+        }
+    }
+}
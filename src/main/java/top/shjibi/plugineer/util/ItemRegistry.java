@@ -0,0 +1,85 @@
+package top.shjibi.plugineer.util;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>The {@link ItemTemplate}s loaded by an {@link ItemLoader}, by their ids.
+ * <br>A registry never changes after it's loaded, so it can be shared between threads.
+ * </p>
+ */
+public final class ItemRegistry {
+
+    @NotNull
+    private final Map<String, ItemTemplate> templates;
+    @NotNull
+    private final List<String> errors;
+
+    ItemRegistry(@NotNull Map<String, ItemTemplate> templates, @NotNull List<String> errors) {
+        this.templates = Collections.unmodifiableMap(templates);
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Gets the template of an item
+     *
+     * @param id id of the item
+     * @return the template, or null if there's no valid item with that id
+     */
+    @Nullable
+    public ItemTemplate get(@NotNull String id) {
+        return templates.get(id);
+    }
+
+    /**
+     * Creates a copy of an item
+     *
+     * @param id id of the item
+     * @return a new item
+     * @throws IllegalArgumentException if there's no valid item with that id
+     */
+    @NotNull
+    public ItemStack create(@NotNull String id) {
+        ItemTemplate template = templates.get(id);
+        Preconditions.checkArgument(template != null, "Unknown item: %s", id);
+        return template.create();
+    }
+
+    /**
+     * Gets the ids of every valid item, in the order they were defined
+     */
+    @NotNull
+    public Set<String> getIds() {
+        return templates.keySet();
+    }
+
+    /**
+     * Gets every template by its id
+     */
+    @NotNull
+    public Map<String, ItemTemplate> asMap() {
+        return templates;
+    }
+
+    /**
+     * Gets how many valid items there are
+     */
+    public int size() {
+        return templates.size();
+    }
+
+    /**
+     * Gets the reason of every item that couldn't be loaded, as {@code "<id>: <reason>"}
+     */
+    @NotNull
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,152 @@
+package top.shjibi.plugineer.util;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import top.shjibi.plugineer.data.ItemFingerprints;
+
+import java.util.Arrays;
+
+/**
+ * <p>An immutable item, frozen from an {@link ItemBuilder} with {@link ItemBuilder#freeze}.
+ * <br>Every item created from a template is a fresh copy of the frozen item, so the meta is never built again.
+ * Only the amount and the placeholders of the display name and lore, like {@code <price>}, can change between copies.
+ * <br>Copies with placeholders compile their name and lore once, as raw {@link MessageTemplate}s, since the frozen text is already colored.
+ * </p>
+ */
+public final class ItemTemplate {
+
+    @NotNull
+    private final ItemStack prototype;
+    @NotNull
+    private final String[] placeholders;
+    @Nullable
+    private final MessageTemplate name;
+    @Nullable
+    private final MessageTemplate lore;
+    private final long fingerprint;
+
+    ItemTemplate(@NotNull ItemStack item, @NotNull String[] placeholders) {
+        this.prototype = item.clone();
+        this.placeholders = placeholders.clone();
+
+        ItemMeta meta = prototype.getItemMeta();
+        MessageTemplate name = null;
+        MessageTemplate lore = null;
+        if (meta != null && placeholders.length > 0) {
+            if (meta.hasDisplayName()) name = compileIfVariable(new String[]{meta.getDisplayName()}, placeholders);
+            if (meta.hasLore()) lore = compileIfVariable(meta.getLore().toArray(new String[0]), placeholders);
+        }
+        this.name = name;
+        this.lore = lore;
+
+        Long fingerprint = meta == null ? null : meta.getPersistentDataContainer().get(ItemFingerprints.getKey(), PersistentDataType.LONG);
+        this.fingerprint = fingerprint == null ? ItemFingerprints.none : fingerprint;
+    }
+
+    @Nullable
+    private static MessageTemplate compileIfVariable(String[] lines, String[] placeholders) {
+        MessageTemplate template = MessageTemplate.compileRaw(lines, placeholders);
+        return template.isConstant() ? null : template;
+    }
+
+    /**
+     * Creates a copy of the item
+     *
+     * @return a new item
+     */
+    @NotNull
+    public ItemStack create() {
+        return prototype.clone();
+    }
+
+    /**
+     * Creates a copy of the item with another amount
+     *
+     * @param amount the amount of the copy
+     * @return a new item
+     */
+    @NotNull
+    public ItemStack create(int amount) {
+        ItemStack item = prototype.clone();
+        item.setAmount(amount);
+        return item;
+    }
+
+    /**
+     * Creates a copy of the item, replacing the placeholders of its display name and lore
+     *
+     * @param amount the amount of the copy
+     * @param values values of the placeholders, in the order they were declared
+     * @return a new item
+     */
+    @NotNull
+    public ItemStack create(int amount, @NotNull Object... values) {
+        Preconditions.checkArgument(values.length == placeholders.length, "Expected %s values, got %s", placeholders.length, values.length);
+        ItemStack item = create(amount);
+        if (name == null && lore == null) return item;
+
+        ItemMeta meta = item.getItemMeta();
+        if (name != null) meta.setDisplayName(name.render(values)[0]);
+        if (lore != null) meta.setLore(Arrays.asList(lore.render(values)));
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    /**
+     * Gets whether the item is similar to the frozen item, ignoring its amount
+     *
+     * @param item the item to compare
+     */
+    public boolean isSimilar(@Nullable ItemStack item) {
+        return prototype.isSimilar(item);
+    }
+
+    /**
+     * Gets the fingerprint of the item, see {@link ItemBuilder#withFingerprint}
+     *
+     * @return the fingerprint, or {@link ItemFingerprints#none}
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Gets the material of the item
+     */
+    @NotNull
+    public Material getType() {
+        return prototype.getType();
+    }
+
+    /**
+     * Gets the amount of the item when no other amount is given
+     */
+    public int getAmount() {
+        return prototype.getAmount();
+    }
+
+    /**
+     * Gets the names of the placeholders, in the order their values are expected
+     */
+    @NotNull
+    public String[] getPlaceholders() {
+        return placeholders.clone();
+    }
+
+    /**
+     * Gets whether every copy has the same display name and lore
+     */
+    public boolean isConstant() {
+        return name == null && lore == null;
+    }
+
+    @Override
+    public String toString() {
+        return "ItemTemplate {item: " + prototype + ", placeholders: " + Arrays.toString(placeholders) + "}";
+    }
+}
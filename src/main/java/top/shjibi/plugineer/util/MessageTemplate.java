@@ -0,0 +1,193 @@
+package top.shjibi.plugineer.util;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>A message with named placeholders, like {@code <command>}, that is colored and parsed once, or only parsed with {@link #compileRaw}.
+ * <br>Every line is split into literal segments and placeholder slots when the template is compiled, rendering then only appends the segments and the values into a reused builder.
+ * Lines without placeholders are rendered once, when compiling.
+ * <br>Only the declared placeholders are slots, anything else between angle brackets is kept as it is. Values are never colored.
+ * </p>
+ */
+public final class MessageTemplate {
+
+    private static final int maxBuilderCapacity = 8192;
+    private static final ThreadLocal<StringBuilder> builders = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    @NotNull
+    private final String[] placeholders;
+    // Literal segments of every line, there is one more segment than slots
+    @NotNull
+    private final String[][] literals;
+    // The index of the value of every slot of every line
+    @NotNull
+    private final int[][] slots;
+
+    private MessageTemplate(String[] placeholders, String[][] literals, int[][] slots) {
+        this.placeholders = placeholders;
+        this.literals = literals;
+        this.slots = slots;
+    }
+
+    /**
+     * Compiles a template, lines are separated by {@code \n}
+     *
+     * @param text         the text of the template, colored with {@link StringUtil#color}
+     * @param placeholders names of the placeholders, without angle brackets
+     * @return the compiled template
+     */
+    @NotNull
+    public static MessageTemplate compile(@NotNull String text, @NotNull String... placeholders) {
+        return compile(new String[]{text}, placeholders);
+    }
+
+    /**
+     * Compiles a template of multiple lines, every line can be split further by {@code \n}
+     *
+     * @param lines        the lines of the template, colored with {@link StringUtil#color}
+     * @param placeholders names of the placeholders, without angle brackets
+     * @return the compiled template
+     */
+    @NotNull
+    public static MessageTemplate compile(@NotNull String[] lines, @NotNull String... placeholders) {
+        Preconditions.checkNotNull(lines, "'lines' cannot be null!");
+        List<String> split = new ArrayList<>(lines.length);
+        for (String line : lines) {
+            split.addAll(Arrays.asList(StringUtil.color(line).split("\n", -1)));
+        }
+        return parse(split, placeholders);
+    }
+
+    /**
+     * Compiles a template from lines that are used as they are: they are neither colored nor split by {@code \n}
+     *
+     * @param lines        the lines of the template
+     * @param placeholders names of the placeholders, without angle brackets
+     * @return the compiled template
+     */
+    @NotNull
+    public static MessageTemplate compileRaw(@NotNull String[] lines, @NotNull String... placeholders) {
+        Preconditions.checkNotNull(lines, "'lines' cannot be null!");
+        return parse(Arrays.asList(lines), placeholders);
+    }
+
+    private static MessageTemplate parse(List<String> split, String[] placeholders) {
+        Preconditions.checkNotNull(placeholders, "'placeholders' cannot be null!");
+        String[][] literals = new String[split.size()][];
+        int[][] slots = new int[split.size()][];
+        for (int i = 0; i < split.size(); i++) {
+            parseLine(split.get(i), placeholders, i, literals, slots);
+        }
+        return new MessageTemplate(placeholders.clone(), literals, slots);
+    }
+
+    private static void parseLine(String line, String[] placeholders, int index, String[][] literals, int[][] slots) {
+        List<String> lineLiterals = new ArrayList<>();
+        List<Integer> lineSlots = new ArrayList<>();
+        int start = 0;
+        for (int open = line.indexOf('<'); open >= 0; open = line.indexOf('<', open + 1)) {
+            int close = line.indexOf('>', open + 1);
+            if (close < 0) break;
+            int slot = indexOf(placeholders, line, open + 1, close);
+            if (slot < 0) continue;
+            lineLiterals.add(line.substring(start, open));
+            lineSlots.add(slot);
+            start = close + 1;
+            open = close;
+        }
+        lineLiterals.add(line.substring(start));
+
+        literals[index] = lineLiterals.toArray(new String[0]);
+        slots[index] = lineSlots.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int indexOf(String[] placeholders, String line, int start, int end) {
+        for (int i = 0; i < placeholders.length; i++) {
+            String placeholder = placeholders[i];
+            if (placeholder.length() == end - start && line.startsWith(placeholder, start)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Renders every line of the template
+     *
+     * @param values values of the placeholders, in the order they were declared
+     * @return the rendered lines
+     */
+    @NotNull
+    public String[] render(@NotNull Object... values) {
+        checkValues(values);
+        String[] rendered = new String[literals.length];
+        for (int i = 0; i < literals.length; i++) {
+            rendered[i] = renderLine(i, values);
+        }
+        return rendered;
+    }
+
+    /**
+     * Renders the template and sends it to the receiver, line by line
+     *
+     * @param receiver the receiver of the message
+     * @param values   values of the placeholders, in the order they were declared
+     */
+    public void send(@NotNull CommandSender receiver, @NotNull Object... values) {
+        checkValues(values);
+        for (int i = 0; i < literals.length; i++) {
+            receiver.sendMessage(renderLine(i, values));
+        }
+    }
+
+    private void checkValues(Object[] values) {
+        Preconditions.checkArgument(values.length == placeholders.length, "Expected %s values, got %s", placeholders.length, values.length);
+    }
+
+    private String renderLine(int line, Object[] values) {
+        String[] lineLiterals = literals[line];
+        int[] lineSlots = slots[line];
+        if (lineSlots.length == 0) return lineLiterals[0];
+
+        StringBuilder builder = builders.get();
+        if (builder.capacity() > maxBuilderCapacity) {
+            builder = new StringBuilder(256);
+            builders.set(builder);
+        }
+        builder.setLength(0);
+        builder.append(lineLiterals[0]);
+        for (int i = 0; i < lineSlots.length; i++) {
+            builder.append(values[lineSlots[i]]).append(lineLiterals[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Gets the names of the placeholders, in the order their values are expected
+     */
+    @NotNull
+    public String[] getPlaceholders() {
+        return placeholders.clone();
+    }
+
+    /**
+     * Gets how many lines the template renders to
+     */
+    public int getLineCount() {
+        return literals.length;
+    }
+
+    /**
+     * Gets whether the template has no placeholder slot, so that it always renders to the same lines
+     */
+    public boolean isConstant() {
+        for (int[] lineSlots : slots) {
+            if (lineSlots.length > 0) return false;
+        }
+        return true;
+    }
+}
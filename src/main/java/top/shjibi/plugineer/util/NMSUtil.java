@@ -1,15 +1,16 @@
 package top.shjibi.plugineer.util;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-
-import java.util.logging.Level;
+import top.shjibi.plugineer.nms.NMSAccessors;
+import top.shjibi.plugineer.nms.VersionAdapter;
+import top.shjibi.plugineer.nms.VersionAdapters;
 
 /**
  * A deprecated utility class that makes NMS and CraftBukkit easier.
+ * <br>Classes are resolved once and cached by {@link NMSAccessors}, packets and items go through the {@link VersionAdapter} of the server.
  */
 @Deprecated
 public final class NMSUtil {
@@ -22,8 +23,7 @@ public final class NMSUtil {
      */
     @NotNull
     public static String getVersion() {
-        String packageName = Bukkit.getServer().getClass().getPackage().getName();
-        return packageName.substring(packageName.lastIndexOf(".") + 1);
+        return NMSAccessors.getVersion();
     }
 
     /**
@@ -31,12 +31,7 @@ public final class NMSUtil {
      */
     @Nullable
     public static Class<?> getNMClass(@NotNull String name) {
-        try {
-            return Class.forName("net.minecraft." + name);
-        } catch (ClassNotFoundException e) {
-            Bukkit.getLogger().log(Level.WARNING, "Cannot get NM class: " + name + "!");
-            return null;
-        }
+        return NMSAccessors.getNMClass(name);
     }
 
     /**
@@ -44,12 +39,7 @@ public final class NMSUtil {
      */
     @Nullable
     public static Class<?> getNMSClass(@NotNull String name) {
-        try {
-            return Class.forName("net.minecraft.server." + getVersion() + "." + name);
-        } catch (ClassNotFoundException e) {
-            Bukkit.getLogger().log(Level.WARNING, "Cannot find NMS class: " + name + "!");
-            return null;
-        }
+        return NMSAccessors.getNMSClass(name);
     }
 
     /**
@@ -57,30 +47,14 @@ public final class NMSUtil {
      */
     @Nullable
     public static Class<?> getCraftBukkitClass(@NotNull String name) {
-        try {
-            return Class.forName("org.bukkit.craftbukkit." + getVersion() + "." + name);
-        } catch (ClassNotFoundException e) {
-            Bukkit.getLogger().log(Level.WARNING, "Cannot find CraftBukkit class: " + name + "!");
-            return null;
-        }
+        return NMSAccessors.getCraftBukkitClass(name);
     }
 
     /**
      * Sends a packet to the player
      */
     public static boolean sendPacket(@NotNull Player p, @NotNull Object packet) {
-        try {
-            Class<?> packetClass = Class.forName("net.minecraft.network.protocol.Packet");
-            if (!packetClass.isAssignableFrom(packet.getClass())) return false;
-            Object entityPlayer = p.getClass().getMethod("getHandle").invoke(p);
-            Object connection = entityPlayer.getClass().getField("b").get(entityPlayer);
-            connection.getClass().getMethod("a", packetClass).invoke(connection, packet);
-            return true;
-        } catch (ReflectiveOperationException e) {
-            Bukkit.getLogger().log(Level.WARNING, "Cannot send packet: " + packet.getClass().getSimpleName());
-            e.printStackTrace();
-            return false;
-        }
+        return VersionAdapters.get().sendPacket(p, packet);
     }
 
     /**
@@ -88,14 +62,6 @@ public final class NMSUtil {
      */
     @Nullable
     public static Object asNMSCopy(@NotNull ItemStack item) {
-        try {
-            Class<?> itemClass = getCraftBukkitClass("inventory.CraftItemStack");
-            if (itemClass == null) throw new ReflectiveOperationException();
-            return itemClass.getMethod("asNMSCopy", ItemStack.class).invoke(null, item);
-        } catch (ReflectiveOperationException e) {
-            Bukkit.getLogger().log(Level.WARNING, "Cannot get NMS copy of item!");
-            e.printStackTrace();
-            return null;
-        }
+        return VersionAdapters.get().asNMSCopy(item);
     }
 }
@@ -3,7 +3,6 @@ package top.shjibi.plugineer.util;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
-import java.util.regex.Pattern;
 
 /**
  * A utility class for {@link String}
@@ -13,29 +12,124 @@ public final class StringUtil {
     private StringUtil() {
     }
 
-    private static final Pattern colorPattern = Pattern.compile("&([\\da-fk-orx])");
-    private static final Pattern stripPattern = Pattern.compile("[&§]([\\da-fk-orx])");
+    private static final char colorChar = '§';
+    private static final char altColorChar = '&';
+
+    // Maps every color and format code to its lower case form, 0 if the char isn't a code
+    private static final char[] codes = new char[128];
+    private static final boolean[] hexDigits = new boolean[128];
+
+    static {
+        for (char c : "0123456789abcdefklmnorx".toCharArray()) {
+            codes[c] = c;
+            codes[Character.toUpperCase(c)] = c;
+        }
+        for (char c : "0123456789abcdefABCDEF".toCharArray()) {
+            hexDigits[c] = true;
+        }
+    }
 
     /**
-     * Colors the message
+     * Colors the message, translating {@code &} color codes and {@code &#RRGGBB} hex colors.
+     * <br>{@code &x&R&R&G&G&B&B} hex colors are translated like any other code.
+     * <br>Codes are matched ignoring case and written in lower case, so {@code &A} becomes {@code §a}.
      *
      * @param s The message to color
-     * @return The colored message
+     * @return The colored message, or the message itself if there is nothing to color
      */
     @NotNull
     public static String color(@NotNull String s) {
-        return colorPattern.matcher(s).replaceAll("§$1");
+        int length = s.length();
+        int extra = 0;
+        boolean found = false;
+        for (int i = s.indexOf(altColorChar); i >= 0 && i < length - 1; i = s.indexOf(altColorChar, i + 1)) {
+            if (isHexColor(s, i)) {
+                extra += 6;
+                found = true;
+                i += 7;
+            } else if (codeOf(s.charAt(i + 1)) != 0) {
+                found = true;
+                i++;
+            }
+        }
+        if (!found) return s;
+
+        char[] chars = new char[length + extra];
+        int j = 0;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c == altColorChar && i < length - 1) {
+                if (isHexColor(s, i)) {
+                    chars[j++] = colorChar;
+                    chars[j++] = 'x';
+                    for (int k = i + 2; k < i + 8; k++) {
+                        chars[j++] = colorChar;
+                        chars[j++] = Character.toLowerCase(s.charAt(k));
+                    }
+                    i += 7;
+                    continue;
+                }
+                char code = codeOf(s.charAt(i + 1));
+                if (code != 0) {
+                    chars[j++] = colorChar;
+                    chars[j++] = code;
+                    i++;
+                    continue;
+                }
+            }
+            chars[j++] = c;
+        }
+        return new String(chars);
     }
 
     /**
-     * Strips the message
+     * Strips the message of {@code &} and {@code §} color codes and of {@code &#RRGGBB} hex colors
      *
      * @param s The message to strip
-     * @return the striped message
+     * @return the striped message, or the message itself if there is nothing to strip
      */
     @NotNull
     public static String strip(@NotNull String s) {
-        return stripPattern.matcher(s).replaceAll("");
+        int length = s.length();
+        char[] chars = null;
+        int j = 0;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            int skip = 0;
+            if ((c == altColorChar || c == colorChar) && i < length - 1) {
+                if (c == altColorChar && isHexColor(s, i)) {
+                    skip = 8;
+                } else if (codeOf(s.charAt(i + 1)) != 0) {
+                    skip = 2;
+                }
+            }
+
+            if (skip > 0) {
+                if (chars == null) {
+                    chars = new char[length];
+                    s.getChars(0, i, chars, 0);
+                    j = i;
+                }
+                i += skip - 1;
+            } else if (chars != null) {
+                chars[j++] = c;
+            }
+        }
+        return chars == null ? s : new String(chars, 0, j);
+    }
+
+    private static char codeOf(char c) {
+        return c < 128 ? codes[c] : 0;
+    }
+
+    // Whether an &#RRGGBB hex color starts at the index
+    private static boolean isHexColor(String s, int index) {
+        if (index + 8 > s.length() || s.charAt(index + 1) != '#') return false;
+        for (int i = index + 2; i < index + 8; i++) {
+            char c = s.charAt(i);
+            if (c >= 128 || !hexDigits[c]) return false;
+        }
+        return true;
     }
 
     /**
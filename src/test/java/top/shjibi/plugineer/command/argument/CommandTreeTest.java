@@ -0,0 +1,109 @@
+package top.shjibi.plugineer.command.argument;
+
+import org.bukkit.command.CommandSender;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static top.shjibi.plugineer.command.argument.ArgumentNode.*;
+
+class CommandTreeTest {
+
+    private static final CommandSender sender = (CommandSender) Proxy.newProxyInstance(CommandTreeTest.class.getClassLoader(),
+            new Class<?>[]{CommandSender.class}, (proxy, method, args) -> method.getReturnType() == boolean.class ? false : null);
+
+    private static final CommandAction list = context -> {
+    };
+    private static final CommandAction give = context -> {
+    };
+    private static final CommandAction say = context -> {
+    };
+
+    private final CommandTree tree = CommandTree.compile(root().then(
+            literal("list").executes(list),
+            literal("give").then(
+                    argument("amount", ArgumentTypes.integer(1, 64)).executes(give)),
+            literal("say").then(
+                    argument("message", ArgumentTypes.greedyString()).executes(say)),
+            literal("pick").then(
+                    argument("count", ArgumentTypes.integer()).executes(give),
+                    argument("name", ArgumentTypes.word()).executes(say))));
+
+    private CommandContext parse(String... args) throws ArgumentParseException {
+        return tree.parse(sender, null, "test", args);
+    }
+
+    @Test
+    void literalsIgnoreCase() throws ArgumentParseException {
+        assertSame(list, parse("list").getAction());
+        assertSame(list, parse("LiSt").getAction());
+    }
+
+    @Test
+    void typedArgumentsAreParsed() throws ArgumentParseException {
+        CommandContext context = parse("give", "12");
+        assertSame(give, context.getAction());
+        assertEquals(12, (int) context.<Integer>get("amount"));
+    }
+
+    @Test
+    void invalidArgumentFails() {
+        ArgumentParseException e = assertThrows(ArgumentParseException.class, () -> parse("give", "many"));
+        assertEquals("Invalid integer: many", e.getMessage());
+        assertThrows(ArgumentParseException.class, () -> parse("give", "65"));
+    }
+
+    @Test
+    void firstMatchingArgumentWins() throws ArgumentParseException {
+        CommandContext number = parse("pick", "3");
+        assertSame(give, number.getAction());
+        assertEquals(3, (int) number.<Integer>get("count"));
+        assertFalse(number.has("name"));
+
+        CommandContext word = parse("pick", "three");
+        assertSame(say, word.getAction());
+        assertEquals("three", word.get("name"));
+    }
+
+    @Test
+    void greedyArgumentTakesTheRest() throws ArgumentParseException {
+        assertEquals("hello there world", parse("say", "hello", "there", "world").get("message"));
+        assertEquals("hello", parse("say", "hello").get("message"));
+    }
+
+    @Test
+    void tooManyArguments() {
+        ArgumentParseException e = assertThrows(ArgumentParseException.class, () -> parse("list", "extra"));
+        assertEquals("Too many arguments!", e.getMessage());
+    }
+
+    @Test
+    void unknownArgument() {
+        ArgumentParseException e = assertThrows(ArgumentParseException.class, () -> parse("nope"));
+        assertEquals("Unknown argument: nope", e.getMessage());
+    }
+
+    @Test
+    void nodeWithoutActionFails() {
+        ArgumentParseException e = assertThrows(ArgumentParseException.class, () -> parse("give"));
+        assertEquals("Not enough arguments!", e.getMessage());
+        assertThrows(ArgumentParseException.class, this::parse);
+    }
+
+    @Test
+    void failuresHaveNoStackTrace() {
+        ArgumentParseException e = assertThrows(ArgumentParseException.class, () -> parse("give", "many"));
+        assertEquals(0, e.getStackTrace().length);
+    }
+
+    @Test
+    void completesLiteralsAndArguments() {
+        List<String> completions = tree.complete(sender, new String[]{"g"});
+        assertEquals(Arrays.asList("give"), completions);
+        assertTrue(tree.complete(sender, new String[]{"list", ""}).isEmpty());
+        assertTrue(tree.complete(sender, new String[]{"nope", ""}).isEmpty());
+    }
+}
@@ -0,0 +1,104 @@
+package top.shjibi.plugineer.command.base;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    @Test
+    void burstThenCooldown() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(100, 3);
+        assertEquals(0, limiter.tryAcquire());
+        assertEquals(0, limiter.tryAcquire());
+        assertEquals(0, limiter.tryAcquire());
+
+        long wait = limiter.tryAcquire();
+        assertTrue(wait > 0 && wait <= 100);
+
+        Thread.sleep(wait + 20);
+        assertEquals(0, limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire() > 0);
+    }
+
+    @Test
+    void waitIsTheTimeToTheNextUse() {
+        RateLimiter limiter = new RateLimiter(60_000, 1);
+        assertEquals(0, limiter.tryAcquire());
+        long wait = limiter.tryAcquire();
+        assertTrue(wait > 59_000 && wait <= 60_000);
+        assertTrue(limiter.tryAcquire() <= wait);
+    }
+
+    @Test
+    void playersHaveSeparateBuckets() {
+        RateLimiter limiter = new RateLimiter(60_000, 1);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        assertEquals(0, limiter.tryAcquire(first));
+        assertTrue(limiter.tryAcquire(first) > 0);
+        assertEquals(0, limiter.tryAcquire(second));
+        assertTrue(limiter.tryAcquire(second) > 0);
+        assertEquals(0, limiter.tryAcquire());
+        assertEquals(2, limiter.size());
+
+        limiter.reset();
+        assertEquals(0, limiter.size());
+        assertEquals(0, limiter.tryAcquire(first));
+    }
+
+    @Test
+    void rebuildDropsExpiredBuckets() throws Exception {
+        RateLimiter limiter = new RateLimiter(20, 1);
+        // Half of the smallest table, one more key rebuilds it
+        for (int i = 0; i < 31; i++) {
+            assertEquals(0, limiter.tryAcquire(UUID.randomUUID()));
+        }
+        assertEquals(31, used(limiter));
+
+        Thread.sleep(50);
+        assertEquals(0, limiter.size());
+        assertEquals(0, limiter.tryAcquire(UUID.randomUUID()));
+        assertEquals(1, used(limiter));
+        assertEquals(64 << 1, slots(limiter).length());
+    }
+
+    @Test
+    void rebuildKeepsLimitedBuckets() {
+        RateLimiter limiter = new RateLimiter(60_000, 1);
+        UUID limited = UUID.randomUUID();
+        assertEquals(0, limiter.tryAcquire(limited));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.tryAcquire(UUID.randomUUID()));
+        }
+
+        assertEquals(101, limiter.size());
+        assertTrue(limiter.tryAcquire(limited) > 0);
+    }
+
+    private static Object table(RateLimiter limiter) throws ReflectiveOperationException {
+        Field field = RateLimiter.class.getDeclaredField("table");
+        field.setAccessible(true);
+        return field.get(limiter);
+    }
+
+    private static int used(RateLimiter limiter) throws ReflectiveOperationException {
+        Object table = table(limiter);
+        Field field = table.getClass().getDeclaredField("used");
+        field.setAccessible(true);
+        return ((AtomicInteger) field.get(table)).get();
+    }
+
+    private static AtomicLongArray slots(RateLimiter limiter) throws ReflectiveOperationException {
+        Object table = table(limiter);
+        Field field = table.getClass().getDeclaredField("slots");
+        field.setAccessible(true);
+        return (AtomicLongArray) field.get(table);
+    }
+}
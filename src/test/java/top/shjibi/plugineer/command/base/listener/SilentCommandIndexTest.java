@@ -0,0 +1,132 @@
+package top.shjibi.plugineer.command.base.listener;
+
+import org.bukkit.command.Command;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import top.shjibi.plugineer.command.CommandManager;
+import top.shjibi.plugineer.command.base.PlayerCommandHandler;
+import top.shjibi.plugineer.command.base.annotations.CommandInfo;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SilentCommandIndexTest {
+
+    @CommandInfo(name = {"home", "h"}, silent = true)
+    static final class Home extends PlayerCommandHandler {
+        @Override
+        public void execute(@NotNull Player p, @Nullable Command command, @NotNull String label, @NotNull String[] args) {
+        }
+    }
+
+    @CommandInfo(name = {"warp", "home"}, silent = true)
+    static final class Warp extends PlayerCommandHandler {
+        @Override
+        public void execute(@NotNull Player p, @Nullable Command command, @NotNull String label, @NotNull String[] args) {
+        }
+    }
+
+    // Stands in for a handler, like a lazy handler does
+    private static final class Entry implements SilentEntry {
+        private final String[] names;
+        private final PlayerCommandHandler handler;
+
+        private Entry(PlayerCommandHandler handler, String... names) {
+            this.names = names;
+            this.handler = handler;
+        }
+
+        @NotNull
+        @Override
+        public String[] getNames() {
+            return names;
+        }
+
+        @NotNull
+        @Override
+        public CommandManager getManager() {
+            throw new UnsupportedOperationException();
+        }
+
+        @NotNull
+        @Override
+        public PlayerCommandHandler getSilentHandler() {
+            return handler;
+        }
+    }
+
+    private final Home home = new Home();
+    private final Warp warp = new Warp();
+
+    @Test
+    void lookupIgnoresCase() {
+        SilentCommandIndex index = SilentCommandIndex.EMPTY.with(home);
+        assertSame(home, index.get("home"));
+        assertSame(home, index.get("HoMe"));
+        assertSame(home, index.get("/HOME"));
+    }
+
+    @Test
+    void bareAndSlashedLabelsMatch() {
+        SilentCommandIndex index = SilentCommandIndex.EMPTY.with(home);
+        assertSame(home, index.get("home"));
+        assertSame(home, index.get("/home"));
+
+        String line = "/home bed";
+        assertSame(home, index.get(line, 0, 5));
+        assertSame(home, index.get(line, 1, 5));
+    }
+
+    @Test
+    void aliasesMatch() {
+        SilentCommandIndex index = SilentCommandIndex.EMPTY.with(home);
+        assertSame(home, index.get("h"));
+        assertSame(home, index.get("/H"));
+    }
+
+    @Test
+    void firstEntryKeepsItsLabels() {
+        SilentCommandIndex index = SilentCommandIndex.EMPTY.with(home).with(warp);
+        assertSame(home, index.get("home"));
+        assertSame(warp, index.get("warp"));
+        assertEquals(List.of(home, warp), index.getHandlers());
+    }
+
+    @Test
+    void replaceKeepsThePlace() {
+        Entry lazy = new Entry(home, "home", "h");
+        SilentCommandIndex index = SilentCommandIndex.EMPTY.with(lazy).with(warp);
+        assertSame(home, index.get("h"));
+        assertEquals(List.of(warp), index.getHandlers());
+
+        SilentCommandIndex replaced = index.replace(lazy, home);
+        assertEquals(List.of(home, warp), replaced.getHandlers());
+        assertSame(home, replaced.get("home"));
+        assertSame(index, index.replace(new Entry(warp, "other"), home));
+    }
+
+    @Test
+    void withoutRemovesMatchingEntries() {
+        SilentCommandIndex index = SilentCommandIndex.EMPTY.with(home).with(warp);
+        SilentCommandIndex removed = index.without(entry -> entry == home);
+        assertNull(removed.get("h"));
+        assertSame(warp, removed.get("home"));
+
+        assertSame(index, index.without(entry -> false));
+        assertSame(SilentCommandIndex.EMPTY, index.without(entry -> true));
+    }
+
+    @Test
+    void missesNeverMatch() {
+        SilentCommandIndex index = SilentCommandIndex.EMPTY.with(home).with(warp);
+        assertNull(index.get("homes"));
+        assertNull(index.get("hom"));
+        assertNull(index.get("//home"));
+        assertNull(index.get(""));
+        assertNull(index.get("/"));
+        assertNull(SilentCommandIndex.EMPTY.get("home"));
+    }
+}
@@ -0,0 +1,103 @@
+package top.shjibi.plugineer.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordCodecTest {
+
+    enum Rarity {COMMON, EPIC}
+
+    record Point(int x, int y) {
+    }
+
+    record Everything(boolean flag, byte b, short s, char c, int i, long l, float f, double d,
+                      String name, UUID id, Rarity rarity, byte[] bytes, Point point, Integer boxed) {
+    }
+
+    record Small(int amount) {
+    }
+
+    record Grown(int amount, String owner, long time) {
+    }
+
+    record OldPoint(int x) {
+    }
+
+    record Holder(Point point, int after) {
+    }
+
+    record OldHolder(OldPoint point, int after) {
+    }
+
+    record Blob(byte[] bytes) {
+    }
+
+    @Test
+    void everyKindRoundTrips() {
+        UUID id = UUID.randomUUID();
+        Everything value = new Everything(true, (byte) -3, (short) 1234, 'é', -70000, Long.MIN_VALUE, 1.5f, -2.25,
+                "ruby", id, Rarity.EPIC, new byte[]{1, 2, 3}, new Point(4, -5), 6);
+        Everything decoded = DataCodecs.decode(Everything.class, DataCodecs.encode(value));
+
+        assertTrue(decoded.flag());
+        assertEquals(-3, decoded.b());
+        assertEquals(1234, decoded.s());
+        assertEquals('é', decoded.c());
+        assertEquals(-70000, decoded.i());
+        assertEquals(Long.MIN_VALUE, decoded.l());
+        assertEquals(1.5f, decoded.f());
+        assertEquals(-2.25, decoded.d());
+        assertEquals("ruby", decoded.name());
+        assertEquals(id, decoded.id());
+        assertSame(Rarity.EPIC, decoded.rarity());
+        assertArrayEquals(new byte[]{1, 2, 3}, decoded.bytes());
+        assertEquals(new Point(4, -5), decoded.point());
+        assertEquals(6, (int) decoded.boxed());
+    }
+
+    @Test
+    void nullsRoundTrip() {
+        Everything value = new Everything(false, (byte) 0, (short) 0, 'a', 0, 0, 0, 0,
+                null, null, null, null, null, null);
+        Everything decoded = DataCodecs.decode(Everything.class, DataCodecs.encode(value));
+
+        assertNull(decoded.name());
+        assertNull(decoded.id());
+        assertNull(decoded.rarity());
+        assertNull(decoded.bytes());
+        assertNull(decoded.point());
+        assertNull(decoded.boxed());
+    }
+
+    @Test
+    void addedComponentsGetDefaults() {
+        Grown grown = DataCodecs.decode(Grown.class, DataCodecs.encode(new Small(7)));
+        assertEquals(new Grown(7, null, 0), grown);
+
+        Small small = DataCodecs.decode(Small.class, DataCodecs.encode(new Grown(7, "bob", 9)));
+        assertEquals(new Small(7), small);
+    }
+
+    @Test
+    void unknownNestedComponentsAreSkipped() {
+        OldHolder holder = DataCodecs.decode(OldHolder.class, DataCodecs.encode(new Holder(new Point(1, 2), 3)));
+        assertEquals(new OldHolder(new OldPoint(1), 3), holder);
+    }
+
+    @Test
+    void oversizedLengthsAreRejected() {
+        byte[] bytes = DataCodecs.encode(new Blob(new byte[]{1, 2, 3}));
+        // version, count, then the length of the array plus one
+        assertEquals(4, bytes[2]);
+        byte[] forged = {bytes[0], bytes[1], (byte) 0xF0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 1, 2, 3};
+        assertThrows(IllegalArgumentException.class, () -> DataCodecs.decode(Blob.class, forged));
+
+        byte[] nested = DataCodecs.encode(new Holder(new Point(1, 2), 3));
+        byte[] truncated = new byte[nested.length - 2];
+        System.arraycopy(nested, 0, truncated, 0, truncated.length);
+        assertThrows(IllegalArgumentException.class, () -> DataCodecs.decode(Holder.class, truncated));
+    }
+}
@@ -0,0 +1,51 @@
+package top.shjibi.plugineer.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandTokenizerTest {
+
+    @Test
+    void spacesSeparateArguments() {
+        assertArrayEquals(new String[]{"a", "b"}, CommandTokenizer.tokenize("  a   b  "));
+        assertArrayEquals(new String[0], CommandTokenizer.tokenize("   "));
+        assertArrayEquals(new String[0], CommandTokenizer.tokenize(""));
+    }
+
+    @Test
+    void quotesGroupArguments() {
+        assertArrayEquals(new String[]{"a b", "c"}, CommandTokenizer.tokenize("\"a b\" c"));
+        assertArrayEquals(new String[]{"", "c"}, CommandTokenizer.tokenize("\"\" c"));
+    }
+
+    @Test
+    void unclosedQuotesAreNormalCharacters() {
+        assertArrayEquals(new String[]{"\"a", "b"}, CommandTokenizer.tokenize("\"a b"));
+        assertArrayEquals(new String[]{"\"a\"b", "c"}, CommandTokenizer.tokenize("\"a\"b c"));
+    }
+
+    @Test
+    void backslashesEscapeInsideQuotes() {
+        assertArrayEquals(new String[]{"say \"hi\"", "x"}, CommandTokenizer.tokenize("\"say \\\"hi\\\"\" x"));
+        assertArrayEquals(new String[]{"c:\\d"}, CommandTokenizer.tokenize("\"c:\\\\d\""));
+        assertArrayEquals(new String[]{"a\\b"}, CommandTokenizer.tokenize("a\\b"));
+    }
+
+    @Test
+    void singleQuotesAreNotSpecial() {
+        assertArrayEquals(new String[]{"don't", "stop"}, CommandTokenizer.tokenize("don't stop"));
+        assertArrayEquals(new String[]{"'a", "b'"}, CommandTokenizer.tokenize("'a b'"));
+    }
+
+    @Test
+    void labelEndIsTheFirstSpace() {
+        String line = "/silent home \"my base\" 3";
+        int end = CommandTokenizer.labelEnd(line, 1);
+        assertEquals("silent", line.substring(1, end));
+        assertArrayEquals(new String[]{"home", "my base", "3"}, CommandTokenizer.tokenize(line, end));
+
+        assertEquals(5, CommandTokenizer.labelEnd("/home", 0));
+        assertArrayEquals(new String[0], CommandTokenizer.tokenize("/home", 5));
+    }
+}
@@ -0,0 +1,28 @@
+package top.shjibi.plugineer.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageTemplateTest {
+
+    @Test
+    void placeholdersAreReplaced() {
+        MessageTemplate template = MessageTemplate.compile("Usage: /<command> <player>", "command");
+        assertArrayEquals(new String[]{"Usage: /give <player>"}, template.render("give"));
+        assertFalse(template.isConstant());
+    }
+
+    @Test
+    void compileColorsAndSplitsLines() {
+        MessageTemplate template = MessageTemplate.compile("&aone\ntwo");
+        assertArrayEquals(new String[]{"§aone", "two"}, template.render());
+        assertTrue(template.isConstant());
+    }
+
+    @Test
+    void compileRawKeepsTextAsItIs() {
+        MessageTemplate template = MessageTemplate.compileRaw(new String[]{"&a<price>", "a\nb"}, "price");
+        assertArrayEquals(new String[]{"&a5", "a\nb"}, template.render(5));
+    }
+}
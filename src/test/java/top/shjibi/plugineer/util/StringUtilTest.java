@@ -0,0 +1,54 @@
+package top.shjibi.plugineer.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringUtilTest {
+
+    @Test
+    void colorTranslatesCodes() {
+        assertEquals("§aHello §lworld", StringUtil.color("&aHello &lworld"));
+        assertEquals("§x§f§f§0§0§a§a", StringUtil.color("&x&f&f&0&0&a&a"));
+    }
+
+    @Test
+    void colorTranslatesHexColors() {
+        assertEquals("§x§f§f§0§0§a§aHi", StringUtil.color("&#FF00aaHi"));
+        assertEquals("&#FF00a", StringUtil.color("&#FF00a"));
+        assertEquals("&#FF00a§b", StringUtil.color("&#FF00a&b"));
+        assertEquals("&#GG0000", StringUtil.color("&#GG0000"));
+    }
+
+    @Test
+    void colorTranslatesTheLastOfRepeatedAmpersands() {
+        assertEquals("&§a", StringUtil.color("&&a"));
+        assertEquals("a &", StringUtil.color("a &"));
+    }
+
+    // Older releases left upper-case codes untranslated
+    @Test
+    void upperCaseCodesAreLowerCased() {
+        assertEquals("§a§l", StringUtil.color("&A&L"));
+        assertEquals("§x§f§f§0§0§a§a", StringUtil.color("&#FF00AA"));
+        assertEquals("text", StringUtil.strip("&Ate§Bxt"));
+    }
+
+    @Test
+    void stripRemovesEveryCode() {
+        assertEquals("Hi there !", StringUtil.strip("§aHi &bthere &#FF00aa!"));
+        assertEquals("", StringUtil.strip("§x§f§f§0§0§a§a"));
+        assertEquals("&", StringUtil.strip("&&a"));
+        assertEquals("&#FF00a", StringUtil.strip("&#FF00a"));
+    }
+
+    @Test
+    void unchangedMessagesAreReturnedAsTheyAre() {
+        String plain = "Nothing to see & nothing to do";
+        assertSame(plain, StringUtil.color(plain));
+        assertSame(plain, StringUtil.strip(plain));
+
+        String colored = "§aAlready colored";
+        assertSame(colored, StringUtil.color(colored));
+    }
+}